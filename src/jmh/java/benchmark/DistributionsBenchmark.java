@@ -0,0 +1,127 @@
+package benchmark;
+
+import eduni.distributions.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one {@code sample()} for each distribution used by the airport model, with the
+ * parameters of {@link simu.model.MyEngine}. The {@code *Prefetched} variants serve the same
+ * generator through a {@link PrefetchGenerator}, i.e. from bulk-filled blocks, and the
+ * {@code *Ziggurat} variants use {@link SamplingMethod#ZIGGURAT}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DistributionsBenchmark {
+
+    private ContinuousGenerator logNormal;
+    private ContinuousGenerator gamma;
+    private ContinuousGenerator truncatedNormal;
+    private ContinuousGenerator normal;
+    private ContinuousGenerator negexp;
+
+    @Param({"256"})
+    public int blockSize;
+
+    private ContinuousGenerator logNormalPrefetched;
+    private ContinuousGenerator gammaPrefetched;
+    private ContinuousGenerator normalPrefetched;
+    private ContinuousGenerator negexpPrefetched;
+
+    private ContinuousGenerator logNormalZiggurat;
+    private ContinuousGenerator gammaZiggurat;
+    private ContinuousGenerator normalZiggurat;
+    private ContinuousGenerator negexpZiggurat;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        logNormal = new LogNormal(2.3, 0.5, 1);
+        gamma = new Gamma(2, 5, 100001);
+        truncatedNormal = new TruncatedNormal(12, 6, 200001);
+        normal = new Normal(8, 4, 300001);
+        negexp = new Negexp(15, 400001);
+        logNormalPrefetched = new PrefetchGenerator(new LogNormal(2.3, 0.5, 1), blockSize);
+        gammaPrefetched = new PrefetchGenerator(new Gamma(2, 5, 100001), blockSize);
+        normalPrefetched = new PrefetchGenerator(new Normal(8, 4, 300001), blockSize);
+        negexpPrefetched = new PrefetchGenerator(new Negexp(15, 400001), blockSize);
+        logNormalZiggurat = ziggurat(new LogNormal(2.3, 0.5, 1));
+        gammaZiggurat = ziggurat(new Gamma(2, 5, 100001));
+        normalZiggurat = ziggurat(new Normal(8, 4, 300001));
+        negexpZiggurat = ziggurat(new Negexp(15, 400001));
+    }
+
+    private static <G extends Generator & ContinuousGenerator> G ziggurat(G generator) {
+        generator.setSamplingMethod(SamplingMethod.ZIGGURAT);
+        return generator;
+    }
+
+    @Benchmark
+    public double logNormal() {
+        return logNormal.sample();
+    }
+
+    @Benchmark
+    public double gamma() {
+        return gamma.sample();
+    }
+
+    @Benchmark
+    public double truncatedNormal() {
+        return truncatedNormal.sample();
+    }
+
+    @Benchmark
+    public double normal() {
+        return normal.sample();
+    }
+
+    @Benchmark
+    public double negexp() {
+        return negexp.sample();
+    }
+
+    @Benchmark
+    public double logNormalPrefetched() {
+        return logNormalPrefetched.sample();
+    }
+
+    @Benchmark
+    public double gammaPrefetched() {
+        return gammaPrefetched.sample();
+    }
+
+    @Benchmark
+    public double normalPrefetched() {
+        return normalPrefetched.sample();
+    }
+
+    @Benchmark
+    public double negexpPrefetched() {
+        return negexpPrefetched.sample();
+    }
+
+    @Benchmark
+    public double logNormalZiggurat() {
+        return logNormalZiggurat.sample();
+    }
+
+    @Benchmark
+    public double gammaZiggurat() {
+        return gammaZiggurat.sample();
+    }
+
+    @Benchmark
+    public double normalZiggurat() {
+        return normalZiggurat.sample();
+    }
+
+    @Benchmark
+    public double negexpZiggurat() {
+        return negexpZiggurat.sample();
+    }
+}
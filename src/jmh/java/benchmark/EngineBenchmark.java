@@ -0,0 +1,73 @@
+package benchmark;
+
+import controller.HeadlessController;
+import org.openjdk.jmh.annotations.*;
+import simu.framework.CalendarEventList;
+import simu.framework.EventList;
+import simu.framework.SimulationContext;
+import simu.framework.Trace;
+import simu.model.EventType;
+import simu.model.MyEngine;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end headless run of {@link MyEngine}: no delay, no database, tracing at error level.
+ * Besides the runs per second, the {@link Counters} report the processed B events per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EngineBenchmark {
+
+    @Param({"heap", "calendar"})
+    public String implementation;
+
+    @Param({"100000"})
+    public double simulationTime;
+
+    /** Line counts per station, in service point index order. */
+    @Param({"3,2,1,2,1,2,1,2"})
+    public String lineCounts;
+
+    private int[] lines;
+    private long seed = 4851;
+
+    /** Secondary result: processed events, reported by JMH as a rate. */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long events;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            events = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Trace.setTraceLevel(Trace.Level.ERR);
+        String[] parts = lineCounts.split(",");
+        lines = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            lines[i] = Integer.parseInt(parts[i].trim());
+        }
+    }
+
+    @Benchmark
+    public HeadlessController run(Counters counters) {
+        HeadlessController controller = new HeadlessController();
+        EventList eventList = implementation.equals("calendar") ? new CalendarEventList(EventType.values()) : new EventList();
+        MyEngine engine = new MyEngine(controller, lines, eventList, new SimulationContext(seed++));
+        engine.setSimulationTime(simulationTime);
+        engine.setDelay(0);
+        engine.setPersistResults(false);
+        engine.run();
+        counters.events += engine.getEventCount();
+        return controller;
+    }
+}
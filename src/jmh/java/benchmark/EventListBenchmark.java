@@ -0,0 +1,52 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import simu.framework.CalendarEventList;
+import simu.framework.EventList;
+import simu.model.EventType;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hold-model benchmark of the event sets: every operation removes the earliest event and
+ * schedules a new one an exponential increment later, so the number of pending events stays at
+ * {@code size}. This is the access pattern of the engine's B phase.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventListBenchmark {
+
+    @Param({"heap", "calendar"})
+    public String implementation;
+
+    @Param({"16", "1024", "65536"})
+    public int size;
+
+    private EventList eventList;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        eventList = implementation.equals("calendar") ? new CalendarEventList(EventType.values()) : new EventList();
+        random = new SplittableRandom(42);
+        for (int i = 0; i < size; i++) {
+            eventList.add(EventType.ARR1, increment());
+        }
+    }
+
+    private double increment() {
+        return -Math.log(1.0 - random.nextDouble());
+    }
+
+    @Benchmark
+    public double hold() {
+        double now = eventList.remove().getTime();
+        eventList.add(EventType.GATE, now + increment());
+        return now;
+    }
+}
@@ -0,0 +1,64 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import simu.model.QueueLengthIndex;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Join-shortest-queue plus serve-longest-queue with the {@link QueueLengthIndex} against the
+ * linear scans over all lines that {@link simu.model.ServicePoint} used before. Every line holds
+ * {@code queued} passengers; one operation adds to the shortest line and removes from the longest.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LineSelectionBenchmark {
+
+    @Param({"4", "16", "64", "256"})
+    public int lines;
+
+    @Param({"3"})
+    public int queued;
+
+    private QueueLengthIndex index;
+    private int[] lengths;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new QueueLengthIndex(lines);
+        lengths = new int[lines];
+        for (int i = 0; i < lines * queued; i++) {
+            int line = index.shortest();
+            index.increment(line);
+            lengths[line]++;
+        }
+    }
+
+    @Benchmark
+    public int indexed() {
+        int shortest = index.shortest();
+        index.increment(shortest);
+        int longest = index.longest();
+        index.decrement(longest);
+        return longest;
+    }
+
+    @Benchmark
+    public int linearScan() {
+        int shortest = 0;
+        for (int i = 1; i < lengths.length; i++) {
+            if (lengths[i] < lengths[shortest]) shortest = i;
+        }
+        lengths[shortest]++;
+        int longest = 0;
+        for (int i = 1; i < lengths.length; i++) {
+            if (lengths[i] > lengths[longest]) longest = i;
+        }
+        lengths[longest]--;
+        return longest;
+    }
+}
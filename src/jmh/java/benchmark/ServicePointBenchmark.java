@@ -0,0 +1,59 @@
+package benchmark;
+
+import eduni.distributions.Negexp;
+import org.openjdk.jmh.annotations.*;
+import simu.framework.EventList;
+import simu.framework.SimulationContext;
+import simu.framework.Trace;
+import simu.model.EventType;
+import simu.model.Passenger;
+import simu.model.PassengerGenerator;
+import simu.model.ServicePoint;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue selection and statistics cost of a {@link ServicePoint} as a function of its line count.
+ * The service point is pre-filled with {@code queued} passengers per line; {@code addRemove} keeps
+ * that level by enqueueing one passenger and dequeueing one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ServicePointBenchmark {
+
+    @Param({"1", "4", "16", "64", "256"})
+    public int lines;
+
+    @Param({"2"})
+    public int queued;
+
+    private ServicePoint servicePoint;
+    private Passenger passenger;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Trace.setTraceLevel(Trace.Level.ERR);
+        SimulationContext context = new SimulationContext(1);
+        servicePoint = new ServicePoint(new Negexp(5, 1), new EventList(), EventType.CHECK_IN, lines, context);
+        PassengerGenerator passengers = new PassengerGenerator(context);
+        for (int i = 0; i < lines * queued; i++) {
+            servicePoint.addQueue(passengers.next());
+        }
+        passenger = passengers.next();
+    }
+
+    @Benchmark
+    public Passenger addRemove() {
+        servicePoint.addQueue(passenger);
+        return servicePoint.removeQueue();
+    }
+
+    @Benchmark
+    public double averageLength() {
+        return servicePoint.getAverageLength();
+    }
+}
@@ -0,0 +1,138 @@
+import controller.HeadlessController;
+import dao.FileResultStore;
+import dao.ResultStores;
+import eduni.distributions.SamplingMethod;
+import eduni.distributions.SplittableSource;
+import simu.framework.CalendarEventList;
+import simu.framework.EventList;
+import simu.framework.SimulationContext;
+import simu.framework.Trace;
+import simu.model.EventType;
+import simu.model.MyEngine;
+import simu.model.ReplicationRunner;
+import simu.model.ReplicationSummary;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Command line entry point that runs one simulation without JavaFX.
+ * <p>Usage: {@code HeadlessMain <simulationTime> [8 line counts] [--no-db] [--store FILE] [--calendar] [--splittable]
+ * [--ziggurat] [--block B] [--crn] [--seed S] [--replications N [--threads T] [--compare c1..c8]]}</p>
+ * <p>The engine runs on the calling thread with no delay between events, so the run is limited
+ * only by CPU. With {@code --no-db} the results are printed but not persisted, {@code --store} persists them
+ * in the local append-only file FILE instead of MariaDB, and
+ * {@code --calendar} uses the {@link CalendarEventList} instead of the default heap.
+ * {@code --replications} runs N independent replications in parallel with a {@link ReplicationRunner}
+ * and prints the mean and confidence interval of the queue statistics; those are never persisted.
+ * {@code --splittable} takes the random streams from a 64-bit {@link SplittableSource} seeded with S
+ * instead of the legacy MLCG seed stream rooted at S. {@code --block} lets the service and
+ * arrival time generators produce B samples at a time, and {@code --ziggurat} switches them to the
+ * constant-time Ziggurat and Marsaglia-Tsang algorithms. {@code --crn} gives every random input a dedicated,
+ * synchronised stream (common random numbers), and {@code --compare} runs the replications for a second set of
+ * eight line counts on the same streams and prints the paired differences.</p>
+ * @author Elias Eide
+ */
+public class HeadlessMain {
+	public static void main(String args[]) {
+		if (args.length == 0) {
+			System.err.println("Usage: HeadlessMain <simulationTime> [checkIn luggage luggagePri security securityPri passport passportPri gate] [--no-db] [--store FILE] [--calendar] [--splittable] [--ziggurat] [--block B] [--crn] [--seed S] [--replications N [--threads T] [--compare c1..c8]]");
+			System.exit(1);
+		}
+		boolean persist = true;
+		boolean calendar = false;
+		boolean splittable = false;
+		int blockSize = 0;
+		SamplingMethod samplingMethod = SamplingMethod.CLASSIC;
+		boolean crn = false;
+		int[] compareCounts = null;
+		int replications = 0;
+		long seed = 4851;
+		int threads = Runtime.getRuntime().availableProcessors();
+		int[] lineCounts = new int[]{1,1,1,1,1,1,1,1};
+		int countIndex = 0;
+		double simulationTime = Double.parseDouble(args[0]);
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("--no-db")) {
+				persist = false;
+			} else if (args[i].equals("--store")) {
+				ResultStores.setDefault(new FileResultStore(Path.of(args[++i])));
+			} else if (args[i].equals("--calendar")) {
+				calendar = true;
+			} else if (args[i].equals("--splittable")) {
+				splittable = true;
+			} else if (args[i].equals("--ziggurat")) {
+				samplingMethod = SamplingMethod.ZIGGURAT;
+			} else if (args[i].equals("--block")) {
+				blockSize = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("--crn")) {
+				crn = true;
+			} else if (args[i].equals("--compare")) {
+				compareCounts = new int[8];
+				for (int c = 0; c < compareCounts.length; c++) {
+					compareCounts[c] = Integer.parseInt(args[++i]);
+				}
+			} else if (args[i].equals("--replications")) {
+				replications = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("--seed")) {
+				seed = Long.parseLong(args[++i]);
+			} else if (args[i].equals("--threads")) {
+				threads = Integer.parseInt(args[++i]);
+			} else if (countIndex < lineCounts.length) {
+				lineCounts[countIndex++] = Integer.parseInt(args[i]);
+			}
+		}
+
+		Trace.setTraceLevel(Trace.Level.ERR);
+		if (replications > 0) {
+			runReplications(lineCounts, simulationTime, replications, seed, threads, calendar, splittable, blockSize, samplingMethod,
+					crn, compareCounts);
+			return;
+		}
+
+		HeadlessController controller = new HeadlessController();
+		EventList eventList = calendar ? new CalendarEventList(EventType.values()) : new EventList();
+		SimulationContext context = splittable ? new SimulationContext(new SplittableSource(seed)) : new SimulationContext(seed);
+		context.setSampleBlockSize(blockSize);
+		context.setSamplingMethod(samplingMethod);
+		context.setCommonRandomNumbers(crn);
+		MyEngine engine = new MyEngine(controller, lineCounts, eventList, context);
+		engine.setSimulationTime(simulationTime);
+		engine.setDelay(0);
+		engine.setPersistResults(persist);
+
+		long start = System.nanoTime();
+		engine.run();	// synchronous, no separate engine thread needed
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.println("Line counts: " + Arrays.toString(lineCounts));
+		System.out.println("Passengers arrived: " + controller.getCustomers());
+		System.out.printf("Events: %d in %.3f s (%.0f events/s)%n",
+				engine.getEventCount(), seconds, engine.getEventCount() / Math.max(seconds, 1e-9));
+	}
+
+	private static void runReplications(int[] lineCounts, double simulationTime, int replications, long seed,
+										int threads, boolean calendar, boolean splittable, int blockSize,
+										SamplingMethod samplingMethod, boolean crn, int[] compareCounts) {
+		ReplicationRunner runner = new ReplicationRunner(lineCounts, simulationTime, replications, seed);
+		runner.setParallelism(threads);
+		runner.setSplittableStreams(splittable);
+		runner.setSampleBlockSize(blockSize);
+		runner.setSamplingMethod(samplingMethod);
+		runner.setCommonRandomNumbers(crn);
+		if (calendar) {
+			runner.setEventListFactory(() -> new CalendarEventList(EventType.values()));
+		}
+		long start = System.nanoTime();
+		try {
+			ReplicationSummary summary = compareCounts == null ? runner.run() : runner.compare(compareCounts);
+			double seconds = (System.nanoTime() - start) / 1e9;
+			System.out.println("Line counts: " + Arrays.toString(lineCounts)
+					+ (compareCounts == null ? "" : " (A) vs " + Arrays.toString(compareCounts) + " (B)"));
+			System.out.print(summary);
+			System.out.printf("%d replications on %d threads in %.3f s%n", replications, threads, seconds);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -1,12 +1,12 @@
 
 package controller;
 
-import dao.RunDao;
+import dao.AsyncResultWriter;
 import dao.RunStatisticsDao;
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import simu.model.entity.Run;
 import simu.model.entity.RunStatistics;
-import simu.framework.Clock;
 import simu.framework.IEngine;
 import simu.model.EventType;
 import simu.model.MyEngine;
@@ -20,18 +20,28 @@ import view.ISimulatorUI;
  *   <li>Fetches persisted {@link Run} and {@link RunStatistics} via DAOs.</li>
  *   <li>Schedules UI updates on the JavaFX Application Thread.</li>
  * </ul>
- * <p><b>Threading:</b> Methods may be called from the engine thread; all UI changes are marshalled via
- * {@link javafx.application.Platform#runLater(Runnable)} to the JavaFX Application Thread.</p>
+ * <p><b>Threading:</b> Methods may be called from the engine thread. Animations are put into a
+ * {@link UiEventQueue} that an {@link AnimationTimer} drains once per JavaFX pulse; the remaining UI
+ * changes are marshalled via {@link javafx.application.Platform#runLater(Runnable)} to the JavaFX
+ * Application Thread.</p>
  */
 public class Controller implements IControllerVtoM, IControllerMtoV {   // NEW
     private IEngine engine;
     private ISimulatorUI ui;
-    private final RunDao rDao = new RunDao();
     private final RunStatisticsDao runStatisticsDao = new RunStatisticsDao();
 
     // sensible defaults used when UI doesn't provide values
     private static final int[] DEFAULT_LINE_COUNTS = new int[]{1,1,1,1,1,1,1,1};
 
+    // engine to UI animation events, drained once per pulse
+    private static final int UI_QUEUE_CAPACITY = 1024;
+    private static final int MAX_ANIMATIONS_PER_PULSE = 64;
+    private final UiEventQueue uiEvents = new UiEventQueue(UI_QUEUE_CAPACITY);
+    private AnimationTimer uiPump;
+
+    // speeds the speed buttons step through, in wall-clock ms per simulated time unit; 0 is unlimited
+    private static final double[] SPEED_STEPS = {2000, 1000, 500, 200, 100, 50, 20, 10, 5, 2, 1, 0};
+
     public Controller(ISimulatorUI ui) {
         this.ui = ui;
     }
@@ -42,6 +52,8 @@ public class Controller implements IControllerVtoM, IControllerMtoV {   // NEW
      */
     @Override
     public void startSimulation() {
+        resetSimulation(); // a run still in progress must end before its queue is reused
+
         // Try to obtain line counts from the UI; fall back to defaults when missing/invalid
         int[] lineCounts = null;
         try {
@@ -52,81 +64,196 @@ public class Controller implements IControllerVtoM, IControllerMtoV {   // NEW
             lineCounts = DEFAULT_LINE_COUNTS.clone();
         }
 
-        engine = new MyEngine(this, lineCounts); // pass the user-selected line counts
+        MyEngine myEngine = new MyEngine(this, lineCounts); // pass the user-selected line counts
+        engine = myEngine;
         engine.setSimulationTime(ui.getTime());
-        engine.setDelay(ui.getDelay());
+        engine.setTimeScale(Math.max(0, ui.getTimeScale()));
         ui.getVisualisation().clearDisplay();
         ui.getVisualisation().setDuration(1);
+        ui.getVisualisation().setStationLoad(myEngine.getStationLoad());
+        uiEvents.clear();
+        startUiPump();
         ((Thread) engine).start();
     }
 
     /**
-     * Sets clock back to 0 and ends the engine thread. Enables the new run.
+     * Starts draining the {@link UiEventQueue} into the visualisation on every JavaFX pulse.
+     * Must be called on the JavaFX Application Thread.
+     */
+    private void startUiPump() {
+        if (uiPump == null) {
+            uiPump = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    uiEvents.drainTo(ui.getVisualisation(), MAX_ANIMATIONS_PER_PULSE);
+                }
+            };
+        }
+        uiPump.start();
+    }
+
+    /**
+     * Stops draining the {@link UiEventQueue} once the run has ended, so an idle UI does not
+     * poll an empty queue on every pulse. Must be called on the JavaFX Application Thread.
+     */
+    private void stopUiPump() {
+        if (uiPump != null) {
+            uiPump.stop();
+        }
+    }
+
+    /**
+     * @return animations waiting for the next pulse
+     */
+    public int getUiBacklog() {
+        return uiEvents.getBacklog();
+    }
+
+    /**
+     * @return animations dropped because the UI could not keep up with the engine
+     */
+    public long getDroppedUiEvents() {
+        return uiEvents.getDropped();
+    }
+
+    /**
+     * Cancels the engine thread and waits for it to end; the aborted run is not stored. Also
+     * called when a run has finished. Stops the animation pump and enables the new run; the next
+     * engine starts with its own clock at 0.
      * @author Elias Eide and Elias Rinne
      */
     @Override
     public void resetSimulation() {
         if (engine!=null) {
-            try{
-                ((Thread) engine).interrupt();
-            } catch (Exception ignored) {}
+            engine.cancel(); // the engine thread stops before its next event and stores nothing
+            awaitEngine((Thread) engine);
             engine = null;
         }
-        Platform.runLater(() -> {
-            Clock.getInstance().setTime(0.0);
-        });
+        stopUiPump();
+    }
+
+    /**
+     * Waits for a cancelled engine to finish its current event. The {@link UiEventQueue} takes
+     * one producer at a time, so the old engine must be done before the next run clears and
+     * fills it. Cancelling wakes a paused or pacing engine, so the wait is one event at most.
+     */
+    private static void awaitEngine(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
-     * Opens result window and shows correct data from run
+     * Opens result window and shows the data of the latest stored run. Flushing the result writer
+     * and the query run on the results loader thread, so the UI does not wait for the database;
+     * the window opens on the JavaFX thread when the run has been read.
      * @author Elias Rinne and Elias Eide
      */
     @Override
     public void showResults() {
-        try {
-            Run run = rDao.find(1);
-            if (run == null) {
-                run = new Run(0,0,0,0,
+        resetSimulation(); // a run still in progress is cancelled and not stored
+        ResultsController.LOADER.execute(() -> {
+            try {
+                AsyncResultWriter.flushIfStarted(); // the latest run may still be queued
+                RunStatistics runStatistics = runStatisticsDao.findLatest();
+                Run run = runStatistics != null ? runStatistics.getRun() : new Run(0,0,0,0,
                         0,0,0,0);
+                if (runStatistics == null) {
+                    runStatistics = new RunStatistics(run,0,0,
+                            0,0,0,
+                            0,0,0,
+                            0,0,0,
+                            0,0,
+                            0,0,0);
+                }
+                visualiseResults(run, runStatistics); // publishes on the JavaFX thread
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                System.out.println(e.getMessage());
             }
-            RunStatistics runStatistics = runStatisticsDao.find(1);
-            if (runStatistics == null) {
-                runStatistics = new RunStatistics(run,0,0,
-                        0,0,0,
-                        0,0,0,
-                        0,0,0,
-                        0,0,
-                        0,0,0);
-            }
-            visualiseResults(run, runStatistics);
-            resetSimulation();
-        } catch (Exception e) {
-            System.out.println(e.getMessage());
-        }
+        });
     }
 
     /**
-     * Decreases simulation and animation speed
+     * Decreases simulation and animation speed to the next slower step
      * @author Elias Rinne and whoever made the base
-     * @version 1.0
+     * @version 1.1
      */
     @Override
     public void decreaseSpeed() {
-        engine.setDelay((long)(engine.getDelay()*1.10));
-        ui.getVisualisation().scaleAnimationSpeed(1.1);
+        double scale = engine.getTimeScale();
+        for (int i = SPEED_STEPS.length - 1; i >= 0; i--) {
+            if (SPEED_STEPS[i] > scale) {
+                setSpeed(scale, SPEED_STEPS[i]);
+                return;
+            }
+        }
     }
 
     /**
-     * Increases simulation and animation speed
+     * Increases simulation and animation speed to the next faster step, up to unlimited
      * @author Elias Rinne and whoever made the base
-     * @version 1.0
+     * @version 1.1
      */
     @Override
     public void increaseSpeed() { // nopeutetaan moottorisäiettä
-        engine.setDelay((long)(engine.getDelay()*0.9));
-        ui.getVisualisation().scaleAnimationSpeed(0.9);
+        double scale = engine.getTimeScale();
+        if (scale == 0) {
+            return;
+        }
+        for (double step : SPEED_STEPS) {
+            if (step < scale) {
+                setSpeed(scale, step);
+                return;
+            }
+        }
     }
 
+    /**
+     * Moves the engine to a new speed from a fixed set of steps, so repeated presses do not
+     * compound rounding, and scales the animation by the same ratio.
+     */
+    private void setSpeed(double from, double to) {
+        engine.setTimeScale(to);
+        if (from > 0 && to > 0) {
+            ui.getVisualisation().scaleAnimationSpeed(to / from);
+        }
+    }
+
+
+    /**
+     * Pauses the running simulation, or resumes it when it is paused. The animations already
+     * queued still play, so the queues can be inspected in their state at the pause.
+     * @return whether the simulation is paused now; false if no simulation is running
+     */
+    @Override
+    public boolean togglePause() {
+        if (engine == null) {
+            return false;
+        }
+        if (engine.isPaused()) {
+            engine.unpause();
+            return false;
+        }
+        engine.pause();
+        return true;
+    }
+
+    /**
+     * Runs the simulation for one more event and pauses it.
+     * @return whether the simulation is paused now; false if no simulation is running
+     */
+    @Override
+    public boolean stepSimulation() {
+        if (engine == null) {
+            return false;
+        }
+        engine.step();
+        return true;
+    }
 
     /* Simulation results passing to the UI
      * Because FX-UI updates come from engine thread, they need to be directed to the JavaFX thread
@@ -141,18 +268,14 @@ public class Controller implements IControllerVtoM, IControllerMtoV {   // NEW
      */
     @Override
     public void visualiseCustomer() {
-        Platform.runLater(() -> {
-            ui.getVisualisation().newCustomer();
-        });
+        uiEvents.offerCustomer();
     }
     /**
      * Times the animation for checkin
      * @author Elias Rinne
      */
     public void visualiseCheckIn() {
-        Platform.runLater(() -> {
-            ui.getVisualisation().newCustomerCheckin();
-        });
+        uiEvents.offerCheckIn();
     }
 
     /**
@@ -161,9 +284,7 @@ public class Controller implements IControllerVtoM, IControllerMtoV {   // NEW
      */
     @Override
     public void visualiseLuggageDrop(double startX, double startY, boolean isPriority) {
-        Platform.runLater(() -> {
-            ui.getVisualisation().newCustomerLuggageDrop(startX, startY, isPriority);
-        });
+        uiEvents.offerLuggageDrop(startX, startY, isPriority);
     }
 
     /**
@@ -172,9 +293,7 @@ public class Controller implements IControllerVtoM, IControllerMtoV {   // NEW
      */
     @Override
     public void visualiseSecurity(boolean isPriority, EventType from) {
-        Platform.runLater(() -> {
-            ui.getVisualisation().customerAnimationToSecurity(isPriority, from);
-        });
+        uiEvents.offerSecurity(isPriority, from);
     }
 
     /**
@@ -183,9 +302,7 @@ public class Controller implements IControllerVtoM, IControllerMtoV {   // NEW
      */
     @Override
     public void visualisePassport(boolean isPriority, EventType from) {
-        Platform.runLater(() -> {
-            ui.getVisualisation().customerAnimationToPassport(isPriority,from);
-        });
+        uiEvents.offerPassport(isPriority, from);
     }
 
     /**
@@ -194,9 +311,7 @@ public class Controller implements IControllerVtoM, IControllerMtoV {   // NEW
      */
     @Override
     public void visualiseGate(EventType from) {
-        Platform.runLater(() -> {
-            ui.getVisualisation().customerAnimationToGate(from);
-        });
+        uiEvents.offerGate(from);
     }
 
 
@@ -208,8 +323,9 @@ public class Controller implements IControllerVtoM, IControllerMtoV {   // NEW
      */
     public void visualiseResults(Run run, RunStatistics runStats) {
         Platform.runLater(() -> {
-            ui.getVisualisation().resetCustomerCount();
             resetSimulation();
+            uiEvents.clear();
+            ui.getVisualisation().resetCustomerCount();
             ResultsController.open(null, run, runStats);
             ui.activateRestart(); //changes the Start button text to restart. No time to fix it to the presentation
         });
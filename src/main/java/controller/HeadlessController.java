@@ -0,0 +1,97 @@
+package controller;
+
+import simu.model.EventType;
+import simu.model.entity.Run;
+import simu.model.entity.RunStatistics;
+
+/**
+ * Controller sink for running the engine without JavaFX.
+ * <p>
+ * Every visualisation callback is reduced to a counter increment, so the engine thread never
+ * posts work to the JavaFX Application Thread and is not limited by the animation speed.
+ * The last results handed over by the engine are kept so a batch caller can read them after
+ * the run has finished.
+ * </p>
+ * <p><b>Threading:</b> Intended to be used by a single engine thread. The counters are read
+ * after {@link Thread#join()} or a synchronous {@code run()}, which gives the needed visibility.</p>
+ * @author Elias Eide
+ */
+public class HeadlessController implements IControllerMtoV {
+    private long customers;
+    private long checkIns;
+    private long luggageDrops;
+    private long securities;
+    private long passports;
+    private long gates;
+    private double endTime;
+    private Run run;
+    private RunStatistics runStatistics;
+
+    @Override
+    public void showEndTime(double time) {
+        endTime = time;
+    }
+
+    @Override
+    public void visualiseCustomer() {
+        customers++;
+    }
+
+    @Override
+    public void visualiseCheckIn() {
+        checkIns++;
+    }
+
+    @Override
+    public void visualiseLuggageDrop(double startX, double startY, boolean isPriority) {
+        luggageDrops++;
+    }
+
+    @Override
+    public void visualiseSecurity(boolean isPriority, EventType from) {
+        securities++;
+    }
+
+    @Override
+    public void visualisePassport(boolean isPriority, EventType from) {
+        passports++;
+    }
+
+    @Override
+    public void visualiseGate(EventType from) {
+        gates++;
+    }
+
+    @Override
+    public void visualiseResults(Run run, RunStatistics runStatistics) {
+        this.run = run;
+        this.runStatistics = runStatistics;
+    }
+
+    /** @return number of arrivals reported by the engine */
+    public long getCustomers() { return customers; }
+
+    /** @return number of moves towards check-in */
+    public long getCheckIns() { return checkIns; }
+
+    /** @return number of moves towards luggage drop (both lanes) */
+    public long getLuggageDrops() { return luggageDrops; }
+
+    /** @return number of moves towards security (both lanes) */
+    public long getSecurities() { return securities; }
+
+    /** @return number of moves towards passport control (both lanes) */
+    public long getPassports() { return passports; }
+
+    /** @return number of moves towards the gate */
+    public long getGates() { return gates; }
+
+    /** @return the last end time reported by the engine */
+    public double getEndTime() { return endTime; }
+
+    /** @return the run configuration reported at the end of the simulation, or {@code null} */
+    public Run getRun() { return run; }
+
+    /** @return the run statistics reported at the end of the simulation, or {@code null} */
+    public RunStatistics getRunStatistics() { return runStatistics; }
+}
@@ -8,6 +8,8 @@ public interface IControllerVtoM {
 		public void startSimulation();
 		public void increaseSpeed();
 		public void decreaseSpeed();
+		public boolean togglePause();
+		public boolean stepSimulation();
         public void resetSimulation();
         public void showResults();
 }
@@ -1,9 +1,10 @@
 package controller;
 
-import dao.RunDao;
+import dao.AsyncResultWriter;
 import dao.RunStatisticsDao;
+import datasource.MariaDbJpaConnection;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -12,11 +13,15 @@ import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import simu.model.entity.Run;
 import simu.model.entity.RunStatistics;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.AbstractList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class ResultsController {
 
@@ -54,10 +59,23 @@ public class ResultsController {
     @FXML private Label priorityPassportCountLabel;
     @FXML private Label gateCountLabel;
 
-    @FXML private ListView<Run> listView;
-    private final ObservableList<Run> observableList = FXCollections.observableArrayList();
-    private final RunDao runDao = new RunDao();
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResultsController.class);
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_PAGES = 50;
+    private static final double ROW_HEIGHT = 24;
+    // loads the history for every results window, and the latest run for the controller;
+    // a daemon so it never keeps the program alive
+    static final ExecutorService LOADER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "run-history-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @FXML private ListView<Integer> listView;
     private final RunStatisticsDao runStatisticsDao = new RunStatisticsDao();
+    private final RunHistoryPages pages = new RunHistoryPages(PAGE_SIZE, MAX_PAGES,
+            runStatisticsDao::findPageAfter, LOADER, Platform::runLater, this::onPageLoaded);
+    private boolean showingGivenRun;
 
 
     public void initialize() {
@@ -91,6 +109,12 @@ public class ResultsController {
         gateAvgLabel.setText(String.format("%.2f", s.getGateQueueAverageLength()));
     }
 
+    private void showGivenRun(Run run, RunStatistics stats) {
+        showingGivenRun = true;
+        setRunInfo(run);
+        setData(run, stats);
+    }
+
     private void setRunInfo(Run r) {
         if (r == null) {
             clearRunInfo();
@@ -120,47 +144,86 @@ public class ResultsController {
     }
 
     public void setListView() {
-        List<Run> runList = null;
-        try {
-            runList = runDao.findAll();
-        } catch (Exception e) {
-            System.out.println(e.getMessage());
-        }
-        if (runList != null) {
-            observableList.setAll(runList);
-        }
-        listView.setItems(observableList);
-
+        listView.setFixedCellSize(ROW_HEIGHT);
         listView.setCellFactory(v -> new ListCell<>() {
-            @Override protected void updateItem(Run n, boolean empty) {
-                super.updateItem(n, empty);
-                if (empty || n == null) {
+            @Override protected void updateItem(Integer index, boolean empty) {
+                super.updateItem(index, empty);
+                if (empty || index == null) {
                     setText(null);
-                } else {
-                    setText("run" + n.getId() + ".");
+                    return;
                 }
+                RunStatistics s = pages.get(index);
+                setText(s == null ? "..." : "run" + s.getRun().getId() + ".");
             }
         });
 
-        listView.getSelectionModel().selectedItemProperty().addListener((obs, oldRun, newRun) -> {
-            if (newRun == null) {
-                clearLabels();
-                clearRunInfo();
-                return;
-            }
-            setRunInfo(newRun); // RIGHT panel
-
-            // IMPORTANT: fetch by run_id (NOT RunStatistics.id)
-            RunStatistics stats = runStatisticsDao.find(newRun.getId());
-            if (stats != null) {
-                setData(newRun, stats);
-            } else {
-                clearLabels();
+        listView.getSelectionModel().selectedIndexProperty().addListener((obs, oldIndex, newIndex) -> showSelected());
+
+        // counting may wait for the result writer and the database, so not on the JavaFX thread
+        LOADER.execute(() -> {
+            long count = 0;
+            try {
+                AsyncResultWriter.flushIfStarted(); // runs finished just now may still be queued
+                count = runStatisticsDao.count();
+            } catch (Exception e) {
+                System.out.println(e.getMessage());
             }
+            int rows = (int) Math.min(count, Integer.MAX_VALUE);
+            Platform.runLater(() -> {
+                pages.clear();
+                listView.setItems(FXCollections.observableList(new RowIndices(rows)));
+                if (rows > 0 && !showingGivenRun) {
+                    listView.getSelectionModel().selectFirst();
+                }
+            });
         });
+    }
+
+    private void onPageLoaded(int page) {
+        listView.refresh();
+        int selected = listView.getSelectionModel().getSelectedIndex();
+        if (selected >= 0 && pages.pageOf(selected) == page) {
+            showSelected();
+        }
+    }
+
+    private void showSelected() {
+        int index = listView.getSelectionModel().getSelectedIndex();
+        if (index < 0) {
+            clearLabels();
+            clearRunInfo();
+            return;
+        }
+        // the statistics come with their run from the page query, no query per selection
+        RunStatistics stats = pages.get(index);
+        if (stats == null) {
+            clearLabels();
+            clearRunInfo();
+            return;
+        }
+        setRunInfo(stats.getRun()); // RIGHT panel
+        setData(stats.getRun(), stats);
+    }
 
-        if (!observableList.isEmpty()) {
-            listView.getSelectionModel().selectFirst();
+    /** Row numbers 0..size-1 as list items, without storing them. */
+    private static class RowIndices extends AbstractList<Integer> {
+        private final int size;
+
+        RowIndices(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public Integer get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return index;
+        }
+
+        @Override
+        public int size() {
+            return size;
         }
     }
 
@@ -186,6 +249,10 @@ public class ResultsController {
 
     @FXML
     private void onClose() {
+        if (LOGGER.isDebugEnabled()) {
+            MariaDbJpaConnection.getCacheStatistics().forEach((region, stats) ->
+                    LOGGER.debug("Cache region {}: {}", region, stats));
+        }
         Stage stage = (Stage) checkInMaxLabel.getScene().getWindow();
         stage.close();
     }
@@ -195,7 +262,7 @@ public class ResultsController {
             FXMLLoader loader = new FXMLLoader(ResultsController.class.getResource("/results.fxml"));
             Scene scene = new Scene(loader.load());
             ResultsController controller = loader.getController();
-            controller.setData(run, stats);
+            controller.showGivenRun(run, stats);
 
             Stage stage = new Stage();
             if (owner != null) {
@@ -0,0 +1,152 @@
+package controller;
+
+import simu.model.entity.RunStatistics;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.function.IntConsumer;
+
+/**
+ * Cache of the pages of the run history shown in the results window.
+ * <p>
+ * The list in the window has one row per stored run, but only the visible rows are ever asked
+ * for. {@link #get(int)} returns the run of a row if its page is cached; otherwise it returns
+ * null and loads the page in the background, and the caller shows a placeholder until it is told
+ * that the page has arrived. Opening the history therefore costs a count and one page, not a
+ * query of every run. Pages are read by keyset: a page is requested as the runs after the last
+ * run id of the page before it, which scrolling has usually loaded already, so the database
+ * seeks on the primary key instead of counting off every earlier row. The least recently used pages are dropped beyond a maximum, so scrolling
+ * through a large history keeps memory bounded.
+ * </p>
+ * <p>
+ * All methods and the page-loaded callback run on one thread (the JavaFX thread); only the
+ * loader runs on the background executor, so the cache needs no locking.
+ * </p>
+ */
+class RunHistoryPages {
+
+    /**
+     * Loads one page of runs, ordered by run id, with their statistics: the {@code max} runs
+     * following the first {@code skip} runs with an id above {@code afterRunId}.
+     */
+    interface PageLoader {
+        List<RunStatistics> load(int afterRunId, int skip, int max);
+    }
+
+    private final int pageSize;
+    private final PageLoader loader;
+    private final Executor background;
+    private final Executor owner;
+    private final IntConsumer onPageLoaded;
+    private final Map<Integer, List<RunStatistics>> pages;
+    private final Set<Integer> loading = new HashSet<>();
+    private final Set<Integer> failed = new HashSet<>();
+    // id of the last run of every page loaded so far, kept when the page itself is evicted
+    private final TreeMap<Integer, Integer> lastRunIds = new TreeMap<>();
+    private int generation;
+
+    /**
+     * @param pageSize rows per page
+     * @param maxPages pages kept in memory
+     * @param loader loads a page; called on {@code background}
+     * @param background runs the loader
+     * @param owner runs the results on the thread that owns the cache, e.g. {@code Platform::runLater}
+     * @param onPageLoaded called on {@code owner} with the page number after a page has been cached
+     */
+    RunHistoryPages(int pageSize, int maxPages, PageLoader loader, Executor background, Executor owner,
+                    IntConsumer onPageLoaded) {
+        if (pageSize <= 0 || maxPages <= 0) {
+            throw new IllegalArgumentException("pageSize and maxPages must be > 0");
+        }
+        this.pageSize = pageSize;
+        this.loader = loader;
+        this.background = background;
+        this.owner = owner;
+        this.onPageLoaded = onPageLoaded;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<RunStatistics>> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    /**
+     * Returns the run of a row, or null if its page is not cached yet, in which case the page is
+     * requested. A page that could not be loaded is not requested again until {@link #clear()}.
+     * @param index row index
+     * @return statistics of the run at {@code index} with the run fetched, or null
+     */
+    RunStatistics get(int index) {
+        int page = pageOf(index);
+        List<RunStatistics> rows = pages.get(page);
+        if (rows == null) {
+            request(page);
+            return null;
+        }
+        int offset = index - page * pageSize;
+        return offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    /**
+     * Drops every cached page. Loads still in flight are discarded when they arrive.
+     */
+    void clear() {
+        generation++;
+        pages.clear();
+        lastRunIds.clear();
+        loading.clear();
+        failed.clear();
+    }
+
+    /** @return page number of a row */
+    int pageOf(int index) {
+        return index / pageSize;
+    }
+
+    /** @return number of cached pages */
+    int cachedPages() {
+        return pages.size();
+    }
+
+    private void request(int page) {
+        if (loading.contains(page) || failed.contains(page)) {
+            return;
+        }
+        loading.add(page);
+        int requestedIn = generation;
+        // seek past the nearest loaded page before this one; only the pages in between are skipped
+        Map.Entry<Integer, Integer> known = lastRunIds.floorEntry(page - 1);
+        int afterRunId = known == null ? 0 : known.getValue();
+        int skip = (known == null ? page : page - known.getKey() - 1) * pageSize;
+        background.execute(() -> {
+            List<RunStatistics> rows = null;
+            try {
+                rows = loader.load(afterRunId, skip, pageSize);
+            } catch (RuntimeException e) {
+                System.out.println(e.getMessage());
+            }
+            List<RunStatistics> loaded = rows;
+            owner.execute(() -> {
+                if (requestedIn != generation) {
+                    return;
+                }
+                loading.remove(page);
+                if (loaded == null) {
+                    failed.add(page);
+                    return;
+                }
+                pages.put(page, loaded);
+                if (!loaded.isEmpty()) {
+                    lastRunIds.put(page, loaded.get(loaded.size() - 1).getRun().getId());
+                }
+                onPageLoaded.accept(page);
+            });
+        });
+    }
+}
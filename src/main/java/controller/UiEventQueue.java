@@ -0,0 +1,169 @@
+package controller;
+
+import simu.model.EventType;
+import view.IVisualisation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, lock-free queue of animation requests from the engine thread to the JavaFX thread.
+ * <p>
+ * The engine thread is the only producer and the JavaFX thread the only consumer. Events are
+ * stored as primitives in pre-allocated ring buffer slots, so offering one neither allocates nor
+ * locks. When the buffer is full the event is dropped: the engine never waits for rendering, and
+ * memory stays bounded at any simulation speed. New customers are not queued but counted, and
+ * the consumer renders the sum once per pulse.
+ * </p>
+ * <p>
+ * The consumer calls {@link #drainTo(IVisualisation, int)} once per pulse. If more animations
+ * are waiting than the per-pulse budget, only the newest ones are started and the older ones are
+ * dropped, so a burst is coalesced into one frame instead of building up a backlog.
+ * {@link #getBacklog()} and {@link #getDropped()} expose how far the UI falls behind.
+ * </p>
+ */
+public class UiEventQueue {
+    private static final int CHECK_IN = 0, LUGGAGE_DROP = 1, SECURITY = 2, PASSPORT = 3, GATE = 4;
+    private static final EventType[] EVENT_TYPES = EventType.values();
+
+    private final int capacity;
+    private final int mask;
+    private final byte[] kinds;
+    private final boolean[] priorities;
+    private final byte[] sources;      // EventType ordinal of the station the customer comes from
+    private final double[] startXs;
+    private final double[] startYs;
+
+    private final AtomicLong head = new AtomicLong(); // next slot to read, written by the consumer
+    private final AtomicLong tail = new AtomicLong(); // next slot to write, written by the producer
+    private final AtomicInteger newCustomers = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param capacity maximum number of queued animations, rounded up to a power of two
+     */
+    public UiEventQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        kinds = new byte[size];
+        priorities = new boolean[size];
+        sources = new byte[size];
+        startXs = new double[size];
+        startYs = new double[size];
+    }
+
+    /* Producer side: called from the engine thread */
+
+    /** Counts a new customer; rendered with the next pulse. */
+    public void offerCustomer() {
+        newCustomers.incrementAndGet();
+    }
+
+    /** Queues the arrival to check-in animation. */
+    public void offerCheckIn() {
+        offer(CHECK_IN, false, null, 0, 0);
+    }
+
+    /** Queues a move to luggage drop from the given position. */
+    public void offerLuggageDrop(double startX, double startY, boolean isPriority) {
+        offer(LUGGAGE_DROP, isPriority, null, startX, startY);
+    }
+
+    /** Queues a move to security from the given station. */
+    public void offerSecurity(boolean isPriority, EventType from) {
+        offer(SECURITY, isPriority, from, 0, 0);
+    }
+
+    /** Queues a move to passport control from the given station. */
+    public void offerPassport(boolean isPriority, EventType from) {
+        offer(PASSPORT, isPriority, from, 0, 0);
+    }
+
+    /** Queues a move to the gate from the given station. */
+    public void offerGate(EventType from) {
+        offer(GATE, false, from, 0, 0);
+    }
+
+    private void offer(int kind, boolean isPriority, EventType from, double startX, double startY) {
+        long t = tail.get();
+        if (t - head.get() >= capacity) {
+            dropped.incrementAndGet();
+            return;
+        }
+        int slot = (int) (t & mask);
+        kinds[slot] = (byte) kind;
+        priorities[slot] = isPriority;
+        sources[slot] = (byte) (from == null ? 0 : from.ordinal());
+        startXs[slot] = startX;
+        startYs[slot] = startY;
+        tail.lazySet(t + 1); // publishes the slot
+    }
+
+    /* Consumer side: called from the JavaFX thread */
+
+    /**
+     * Renders what has been queued since the last pulse: the customer count in one update and
+     * at most {@code maxAnimations} of the newest animations.
+     *
+     * @param visualisation target of the rendering
+     * @param maxAnimations per-pulse animation budget
+     * @return number of animations started
+     */
+    public int drainTo(IVisualisation visualisation, int maxAnimations) {
+        int customers = newCustomers.getAndSet(0);
+        if (customers > 0) {
+            visualisation.newCustomers(customers);
+        }
+
+        long h = head.get();
+        long t = tail.get();
+        long skip = Math.max(0, t - h - maxAnimations);
+        if (skip > 0) {
+            dropped.addAndGet(skip);
+            h += skip;
+        }
+        int started = 0;
+        for (; h < t; h++, started++) {
+            int slot = (int) (h & mask);
+            boolean isPriority = priorities[slot];
+            EventType from = EVENT_TYPES[sources[slot]];
+            switch (kinds[slot]) {
+                case CHECK_IN -> visualisation.newCustomerCheckin();
+                case LUGGAGE_DROP -> visualisation.newCustomerLuggageDrop(startXs[slot], startYs[slot], isPriority);
+                case SECURITY -> visualisation.customerAnimationToSecurity(isPriority, from);
+                case PASSPORT -> visualisation.customerAnimationToPassport(isPriority, from);
+                default -> visualisation.customerAnimationToGate(from);
+            }
+        }
+        head.lazySet(t); // frees the slots
+        return started;
+    }
+
+    /** Discards everything queued so far. Consumer side. */
+    public void clear() {
+        newCustomers.set(0);
+        head.lazySet(tail.get());
+    }
+
+    /** @return animations queued and not yet rendered */
+    public int getBacklog() {
+        return (int) (tail.get() - head.get());
+    }
+
+    /** @return animations dropped so far, because the queue was full or a pulse was over budget */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /** @return maximum number of queued animations */
+    public int getCapacity() {
+        return capacity;
+    }
+}
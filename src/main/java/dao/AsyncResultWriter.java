@@ -0,0 +1,201 @@
+package dao;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import simu.model.entity.Run;
+import simu.model.entity.RunStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind persistence of finished runs.
+ * <p>
+ * {@link #submit(RunStatistics)} only queues the statistics (and through them their {@link Run})
+ * and returns, so the engine thread never waits for the store. One writer thread takes what
+ * has accumulated, up to {@link #DEFAULT_BATCH_SIZE} runs, and stores it with one
+ * {@link ResultStore#persistAll(List)}. In MariaDB that is one transaction on an EntityManager of
+ * its own; with {@code hibernate.jdbc.batch_size} and sequence ids the inserts of a transaction go
+ * out as one JDBC batch per table, which the driver sends as a bulk insert: a batch of
+ * replications costs a few round trips and one commit instead of two commits per run. In the
+ * {@link FileResultStore} a batch is one append.
+ * </p>
+ * <p>
+ * The queue is bounded. If the database falls behind for longer than the queue covers,
+ * {@link #submit(RunStatistics)} blocks until there is room again, so memory stays bounded.
+ * {@link #flush()} waits until everything submitted so far is written, and the shared instance
+ * flushes from a shutdown hook, so no submitted run is lost on a normal exit. A batch that fails
+ * is rolled back, logged and counted in {@link #getFailed()}.
+ * </p>
+ */
+public class AsyncResultWriter implements AutoCloseable {
+    /** Default number of runs that can wait for the writer. */
+    public static final int DEFAULT_CAPACITY = 4096;
+    /** Default maximum number of runs per transaction; equals {@code hibernate.jdbc.batch_size}. */
+    public static final int DEFAULT_BATCH_SIZE = 50;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncResultWriter.class);
+    private static final long POLL_MILLIS = 50;
+    private static AsyncResultWriter instance;
+
+    private final BlockingQueue<RunStatistics> queue;
+    private final int batchSize;
+    private final Consumer<List<RunStatistics>> sink;
+    private final Thread writer;
+
+    // guarded by this
+    private boolean closed;
+    private long submitted;
+    private long completed;
+    private long failed;
+
+    /**
+     * Returns the shared writer, which stores into {@link ResultStores#getDefault()}.
+     * It is started on first use and flushed and closed when the JVM shuts down.
+     * @return the shared writer
+     */
+    public static synchronized AsyncResultWriter getInstance() {
+        if (instance == null) {
+            AsyncResultWriter w = new AsyncResultWriter(DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE,
+                    ResultStores.getDefault()::persistAll);
+            Runtime.getRuntime().addShutdownHook(new Thread(w::close, "result-writer-shutdown"));
+            instance = w;
+        }
+        return instance;
+    }
+
+    /**
+     * Flushes the shared writer if it has been started; returns at once otherwise.
+     * Readers call this before querying runs they may have just submitted.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static void flushIfStarted() throws InterruptedException {
+        AsyncResultWriter w;
+        synchronized (AsyncResultWriter.class) {
+            w = instance;
+        }
+        if (w != null) {
+            w.flush();
+        }
+    }
+
+    /**
+     * @param capacity maximum number of runs waiting to be written
+     * @param batchSize maximum number of runs handed to the sink at once
+     * @param sink stores one batch; called on the writer thread only
+     */
+    AsyncResultWriter(int capacity, int batchSize, Consumer<List<RunStatistics>> sink) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("capacity and batchSize must be > 0");
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.sink = sink;
+        this.writer = new Thread(this::drain, "result-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a finished run for writing. Blocks only while the queue is full.
+     * @param statistics statistics of the run; its {@link Run} is written with it
+     * @throws IllegalStateException if the writer has been closed
+     */
+    public void submit(RunStatistics statistics) {
+        synchronized (this) {
+            // under the lock close() takes: a run counted here is one the writer waits for
+            if (closed) {
+                throw new IllegalStateException("writer is closed");
+            }
+            submitted++;
+        }
+        try {
+            queue.put(statistics);
+        } catch (InterruptedException e) {
+            synchronized (this) {
+                submitted--;
+                notifyAll();
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while queueing a run", e);
+        }
+    }
+
+    /**
+     * Waits until every run submitted before this call has been written (or has failed).
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized void flush() throws InterruptedException {
+        long target = submitted;
+        while (completed < target) {
+            wait();
+        }
+    }
+
+    /**
+     * Writes what is still queued and stops the writer thread. Further submits are rejected.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** @return runs waiting to be written */
+    public int getBacklog() {
+        return queue.size();
+    }
+
+    /** @return runs that could not be written */
+    public synchronized long getFailed() {
+        return failed;
+    }
+
+    private void drain() {
+        List<RunStatistics> batch = new ArrayList<>(batchSize);
+        while (true) {
+            RunStatistics first;
+            try {
+                first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                first = null;
+            }
+            if (first == null) {
+                synchronized (this) {
+                    // a submit accepted before close() may not have reached the queue yet
+                    if (closed && completed >= submitted) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            boolean ok = false;
+            try {
+                sink.accept(batch);
+                ok = true;
+            } catch (RuntimeException e) {
+                LOGGER.error("Could not write {} runs", batch.size(), e);
+            }
+            synchronized (this) {
+                completed += batch.size();
+                if (!ok) {
+                    failed += batch.size();
+                }
+                notifyAll();
+            }
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,520 @@
+package dao;
+
+import simu.model.entity.Run;
+import simu.model.entity.RunStatistics;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@link ResultStore} in a local append-only text file; needs no database server.
+ * <p>
+ * Every stored run and every stored statistics record is one comma-separated line, appended and
+ * flushed when it is stored; a batch of runs is one write. Changes are appended too: an update is
+ * the record again with the same id, which replaces the earlier one, and a delete is a tombstone.
+ * Storing therefore always costs a sequential write at disk speed. The file is read once, on
+ * first use, into an in-memory index that answers the same queries as the database: by id, by
+ * run id, in run id order and by page. While it is read, a line left incomplete by a crash is cut
+ * off, and if records were replaced or deleted the file is rewritten with the live records only.
+ * </p>
+ * <p>
+ * Lines are {@code R,id,} followed by the eight line counts of the run in the order of its
+ * getters, {@code S,id,runId,} followed by the sixteen queue statistics, {@code DR,id} and
+ * {@code DS,id} for a deleted run and deleted statistics, and {@code N,runId,statisticsId} for the
+ * next ids, so a rewritten file does not hand out the id of a deleted run again. Lines starting
+ * with {@code #} are comments. As in the database, a run that still has statistics cannot be
+ * deleted. All methods are thread-safe.
+ * </p>
+ */
+public class FileResultStore implements ResultStore {
+    private static final String HEADER = "# airport simulator results, format 1";
+
+    private final Path file;
+    private Writer out;
+    private boolean loaded;
+    private int nextRunId = 1;
+    private int nextStatisticsId = 1;
+    private final TreeMap<Integer, Run> runs = new TreeMap<>();
+    private final Map<Integer, RunStatistics> statisticsById = new HashMap<>();
+    private final Map<Integer, RunStatistics> statisticsByRunId = new HashMap<>();
+    private final List<RunStatistics> inRunOrder = new ArrayList<>();
+    private int obsolete; // lines read that a later line replaced or deleted
+
+    /**
+     * @param file the file; created on the first write if it does not exist
+     */
+    public FileResultStore(Path file) {
+        this.file = file;
+    }
+
+    /** @return the file of the store */
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void persist(Run run) {
+        load();
+        int id = nextRunId;
+        Run stored = copyOf(run);
+        stored.setId(id);
+        append(format(stored));
+        index(stored);
+        run.setId(id);
+    }
+
+    @Override
+    public synchronized void persist(RunStatistics statistics) {
+        load();
+        Run run = statistics.getRun() == null || statistics.getRun().getId() == null ? null
+                : runs.get(statistics.getRun().getId());
+        if (run == null) {
+            throw new IllegalArgumentException("the run of the statistics is not stored");
+        }
+        if (statisticsByRunId.containsKey(run.getId())) {
+            throw new IllegalArgumentException("run " + run.getId() + " already has statistics");
+        }
+        int id = nextStatisticsId;
+        RunStatistics stored = copyOf(statistics, run);
+        stored.setId(id);
+        append(format(stored));
+        index(stored);
+        statistics.setId(id);
+    }
+
+    @Override
+    public synchronized void persistAll(List<RunStatistics> batch) {
+        load();
+        List<RunStatistics> stored = new ArrayList<>(batch.size());
+        StringBuilder lines = new StringBuilder(batch.size() * 256);
+        int runId = nextRunId;
+        int statisticsId = nextStatisticsId;
+        for (RunStatistics s : batch) {
+            Run run = copyOf(s.getRun());
+            run.setId(runId++);
+            RunStatistics copy = copyOf(s, run);
+            copy.setId(statisticsId++);
+            lines.append(format(run)).append(format(copy));
+            stored.add(copy);
+        }
+        append(lines.toString());
+        for (int i = 0; i < batch.size(); i++) {
+            RunStatistics copy = stored.get(i);
+            index(copy.getRun());
+            index(copy);
+            batch.get(i).getRun().setId(copy.getRun().getId());
+            batch.get(i).setId(copy.getId());
+        }
+    }
+
+    @Override
+    public synchronized Run findRun(int id) {
+        load();
+        Run run = runs.get(id);
+        return run == null ? null : copyOf(run);
+    }
+
+    @Override
+    public synchronized List<Run> findAllRuns() {
+        load();
+        List<Run> all = new ArrayList<>(runs.size());
+        for (Run run : runs.values()) {
+            all.add(copyOf(run));
+        }
+        return all;
+    }
+
+    @Override
+    public synchronized RunStatistics findStatistics(int id) {
+        load();
+        return copyOrNull(statisticsById.get(id));
+    }
+
+    @Override
+    public synchronized List<RunStatistics> findAllStatistics() {
+        load();
+        return copiesOf(inRunOrder);
+    }
+
+    @Override
+    public synchronized RunStatistics findByRunId(int runId) {
+        load();
+        return copyOrNull(statisticsByRunId.get(runId));
+    }
+
+    @Override
+    public synchronized List<RunStatistics> findPageAfter(int afterRunId, int skip, int max) {
+        load();
+        if (skip < 0 || max < 0) {
+            throw new IllegalArgumentException("skip and max must be >= 0");
+        }
+        int first = firstAfter(afterRunId) + skip;
+        if (first >= inRunOrder.size()) {
+            return new ArrayList<>();
+        }
+        return copiesOf(inRunOrder.subList(first, Math.min(inRunOrder.size(), first + max)));
+    }
+
+    /** @return index in {@link #inRunOrder} of the first run with an id above {@code runId} */
+    private int firstAfter(int runId) {
+        int low = 0;
+        int high = inRunOrder.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (inRunOrder.get(mid).getRun().getId() <= runId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public synchronized long count() {
+        load();
+        return inRunOrder.size();
+    }
+
+    @Override
+    public synchronized RunStatistics findLatest() {
+        load();
+        return inRunOrder.isEmpty() ? null : copyOrNull(inRunOrder.get(inRunOrder.size() - 1));
+    }
+
+    @Override
+    public synchronized void update(Run run) {
+        load();
+        if (run.getId() == null || !runs.containsKey(run.getId())) {
+            throw new IllegalArgumentException("run " + run.getId() + " is not stored");
+        }
+        Run replacement = copyOf(run);
+        append(format(replacement));
+        replace(replacement);
+    }
+
+    @Override
+    public synchronized void update(RunStatistics statistics) {
+        load();
+        RunStatistics old = statistics.getId() == null ? null : statisticsById.get(statistics.getId());
+        if (old == null) {
+            throw new IllegalArgumentException("statistics " + statistics.getId() + " are not stored");
+        }
+        Run run = statistics.getRun() == null || statistics.getRun().getId() == null ? null
+                : runs.get(statistics.getRun().getId());
+        if (run == null) {
+            throw new IllegalArgumentException("the run of the statistics is not stored");
+        }
+        RunStatistics other = statisticsByRunId.get(run.getId());
+        if (other != null && other != old) {
+            throw new IllegalArgumentException("run " + run.getId() + " already has statistics");
+        }
+        RunStatistics replacement = copyOf(statistics, run);
+        append(format(replacement));
+        unindex(old);
+        index(replacement);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws IllegalStateException if the run still has statistics
+     */
+    @Override
+    public synchronized void delete(Run run) {
+        load();
+        if (run.getId() == null || !runs.containsKey(run.getId())) {
+            return;
+        }
+        if (statisticsByRunId.containsKey(run.getId())) {
+            throw new IllegalStateException("run " + run.getId() + " still has statistics");
+        }
+        append("DR," + run.getId() + "\n");
+        runs.remove(run.getId());
+    }
+
+    @Override
+    public synchronized void delete(RunStatistics statistics) {
+        load();
+        RunStatistics stored = statistics.getId() == null ? null : statisticsById.get(statistics.getId());
+        if (stored == null) {
+            return;
+        }
+        append("DS," + stored.getId() + "\n");
+        unindex(stored);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                out = null;
+            }
+        }
+    }
+
+    private void append(String lines) {
+        try {
+            if (out == null) {
+                boolean empty = !Files.exists(file) || Files.size(file) == 0;
+                Path parent = file.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                if (empty) {
+                    out.write(HEADER + "\n");
+                }
+            }
+            out.write(lines);
+            out.flush();
+        } catch (IOException e) {
+            forget(); // part of the lines may have been written; read the file again next time
+            throw new UncheckedIOException("could not write " + file, e);
+        }
+    }
+
+    private void forget() {
+        try {
+            if (out != null) {
+                out.close();
+            }
+        } catch (IOException ignored) {
+        }
+        out = null;
+        loaded = false;
+        nextRunId = 1;
+        nextStatisticsId = 1;
+        runs.clear();
+        statisticsById.clear();
+        statisticsByRunId.clear();
+        inRunOrder.clear();
+        obsolete = 0;
+    }
+
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        if (Files.exists(file)) {
+            long good = 0; // length of the complete, valid lines read so far
+            try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+                String line;
+                String bad = null;
+                while ((line = in.readLine()) != null) {
+                    if (bad != null) {
+                        throw new IllegalStateException(file + ": unreadable line: " + bad);
+                    }
+                    if (line.isEmpty() || line.startsWith("#")) {
+                        good += line.length() + 1;
+                    } else if (parse(line)) {
+                        good += line.length() + 1;
+                    } else {
+                        bad = line;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("could not read " + file, e);
+            }
+            repair(good);
+        }
+        loaded = true;
+    }
+
+    /**
+     * Cuts off an unreadable last line, or ends a complete one that lacks its newline, so the
+     * next write starts on a line of its own. If records were replaced or deleted, rewrites the
+     * file with the live records only, through a temporary file that replaces it in one move.
+     */
+    private void repair(long length) {
+        try {
+            long size = Files.size(file);
+            if (obsolete > 0) {
+                StringBuilder lines = new StringBuilder(HEADER).append('\n')
+                        .append("N,").append(nextRunId).append(',').append(nextStatisticsId).append('\n');
+                for (Run run : runs.values()) {
+                    lines.append(format(run));
+                }
+                for (RunStatistics s : inRunOrder) {
+                    lines.append(format(s));
+                }
+                Path rewritten = file.resolveSibling(file.getFileName() + ".tmp");
+                Files.writeString(rewritten, lines, StandardCharsets.US_ASCII);
+                Files.move(rewritten, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                obsolete = 0;
+            } else if (size > length) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(length);
+                }
+            } else if (size < length) {
+                Files.writeString(file, "\n", StandardCharsets.US_ASCII, StandardOpenOption.APPEND);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not repair " + file, e);
+        }
+    }
+
+    private boolean parse(String line) {
+        String[] f = line.split(",");
+        try {
+            if (f[0].equals("R") && f.length == 10) {
+                Run run = new Run(Integer.parseInt(f[3]), Integer.parseInt(f[4]), Integer.parseInt(f[5]),
+                        Integer.parseInt(f[2]), Integer.parseInt(f[6]), Integer.parseInt(f[7]),
+                        Integer.parseInt(f[8]), Integer.parseInt(f[9]));
+                run.setId(Integer.parseInt(f[1]));
+                if (runs.containsKey(run.getId())) {
+                    obsolete++;
+                    replace(run);
+                } else {
+                    index(run);
+                }
+                return true;
+            }
+            if (f[0].equals("S") && f.length == 19) {
+                Run run = runs.get(Integer.parseInt(f[2]));
+                if (run == null) {
+                    return false;
+                }
+                RunStatistics s = new RunStatistics(run,
+                        Integer.parseInt(f[3]), Double.parseDouble(f[4]),
+                        Integer.parseInt(f[5]), Double.parseDouble(f[6]),
+                        Integer.parseInt(f[7]), Double.parseDouble(f[8]),
+                        Integer.parseInt(f[9]), Double.parseDouble(f[10]),
+                        Integer.parseInt(f[11]), Double.parseDouble(f[12]),
+                        Integer.parseInt(f[13]), Double.parseDouble(f[14]),
+                        Integer.parseInt(f[15]), Double.parseDouble(f[16]),
+                        Integer.parseInt(f[17]), Double.parseDouble(f[18]));
+                s.setId(Integer.parseInt(f[1]));
+                RunStatistics old = statisticsById.get(s.getId());
+                if (old != null) {
+                    obsolete++;
+                    unindex(old);
+                }
+                index(s);
+                return true;
+            }
+            if ((f[0].equals("DR") || f[0].equals("DS")) && f.length == 2) {
+                int id = Integer.parseInt(f[1]);
+                if (f[0].equals("DR")) {
+                    runs.remove(id);
+                } else if (statisticsById.containsKey(id)) {
+                    unindex(statisticsById.get(id));
+                }
+                obsolete += 2; // the record and its tombstone
+                return true;
+            }
+            if (f[0].equals("N") && f.length == 3) {
+                nextRunId = Math.max(nextRunId, Integer.parseInt(f[1]));
+                nextStatisticsId = Math.max(nextStatisticsId, Integer.parseInt(f[2]));
+                return true;
+            }
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return false;
+    }
+
+    private void index(Run run) {
+        runs.put(run.getId(), run);
+        nextRunId = Math.max(nextRunId, run.getId() + 1);
+    }
+
+    /** Replaces a stored run and moves its statistics, if any, to the replacement. */
+    private void replace(Run run) {
+        runs.put(run.getId(), run);
+        RunStatistics s = statisticsByRunId.get(run.getId());
+        if (s != null) {
+            unindex(s);
+            index(copyOf(s, run));
+        }
+    }
+
+    private void unindex(RunStatistics s) {
+        statisticsById.remove(s.getId());
+        statisticsByRunId.remove(s.getRun().getId());
+        inRunOrder.remove(firstAfter(s.getRun().getId() - 1));
+    }
+
+    private void index(RunStatistics s) {
+        statisticsById.put(s.getId(), s);
+        statisticsByRunId.put(s.getRun().getId(), s);
+        int runId = s.getRun().getId();
+        int at = inRunOrder.size();
+        if (at > 0 && inRunOrder.get(at - 1).getRun().getId() > runId) {
+            // statistics stored later for an older run; runs are normally stored in id order
+            at = -Collections.binarySearch(inRunOrder, s, (a, b) -> Integer.compare(a.getRun().getId(), b.getRun().getId())) - 1;
+        }
+        inRunOrder.add(at, s);
+        nextStatisticsId = Math.max(nextStatisticsId, s.getId() + 1);
+    }
+
+    private static String format(Run r) {
+        return "R," + r.getId() + "," + r.getCheckInQueuesCount() + "," + r.getLuggageDropCount() + ","
+                + r.getPriorityLuggageDropCount() + "," + r.getSecurityCount() + "," + r.getPrioritySecurityCount() + ","
+                + r.getPassportControlCount() + "," + r.getPriorityPassportControlCount() + "," + r.getGateCount() + "\n";
+    }
+
+    private static String format(RunStatistics s) {
+        return "S," + s.getId() + "," + s.getRun().getId()
+                + "," + s.getCheckInQueueMaxLength() + "," + s.getCheckInQueueAverageLength()
+                + "," + s.getLuggageDropQueueMaxLength() + "," + s.getLuggageDropQueueAverageLength()
+                + "," + s.getPriorityLuggageDropQueueMaxLength() + "," + s.getPriorityLuggageDropQueueAverageLength()
+                + "," + s.getSecurityQueueMaxLength() + "," + s.getSecurityQueueAverageLength()
+                + "," + s.getPrioritySecurityQueueMaxLength() + "," + s.getPrioritySecurityQueueAverageLength()
+                + "," + s.getPassportControlQueueMaxLength() + "," + s.getPassportControlQueueAverageLength()
+                + "," + s.getPriorityPassportControlQueueMaxLength() + "," + s.getPriorityPassportControlQueueAverageLength()
+                + "," + s.getGateQueueMaxLength() + "," + s.getGateQueueAverageLength() + "\n";
+    }
+
+    private static Run copyOf(Run r) {
+        Run copy = new Run(r.getLuggageDropCount(), r.getPriorityLuggageDropCount(), r.getSecurityCount(),
+                r.getCheckInQueuesCount(), r.getPrioritySecurityCount(), r.getPassportControlCount(),
+                r.getPriorityPassportControlCount(), r.getGateCount());
+        copy.setId(r.getId());
+        return copy;
+    }
+
+    private static RunStatistics copyOf(RunStatistics s, Run run) {
+        RunStatistics copy = new RunStatistics(run,
+                s.getCheckInQueueMaxLength(), s.getCheckInQueueAverageLength(),
+                s.getLuggageDropQueueMaxLength(), s.getLuggageDropQueueAverageLength(),
+                s.getPriorityLuggageDropQueueMaxLength(), s.getPriorityLuggageDropQueueAverageLength(),
+                s.getSecurityQueueMaxLength(), s.getSecurityQueueAverageLength(),
+                s.getPrioritySecurityQueueMaxLength(), s.getPrioritySecurityQueueAverageLength(),
+                s.getPassportControlQueueMaxLength(), s.getPassportControlQueueAverageLength(),
+                s.getPriorityPassportControlQueueMaxLength(), s.getPriorityPassportControlQueueAverageLength(),
+                s.getGateQueueMaxLength(), s.getGateQueueAverageLength());
+        copy.setId(s.getId());
+        return copy;
+    }
+
+    private static RunStatistics copyOrNull(RunStatistics s) {
+        return s == null ? null : copyOf(s, copyOf(s.getRun()));
+    }
+
+    private static List<RunStatistics> copiesOf(List<RunStatistics> stored) {
+        List<RunStatistics> copies = new ArrayList<>(stored.size());
+        for (RunStatistics s : stored) {
+            copies.add(copyOrNull(s));
+        }
+        return copies;
+    }
+}
@@ -0,0 +1,135 @@
+package dao;
+
+import datasource.MariaDbJpaConnection;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import simu.model.entity.Run;
+import simu.model.entity.RunStatistics;
+
+import java.util.List;
+
+/**
+ * {@link ResultStore} in the MariaDB database of {@code persistence.xml}, through
+ * {@link MariaDbJpaConnection}.
+ * <p>
+ * Stored runs do not change, so lookups of runs and their statistics go through the
+ * second-level cache and the history queries through the query cache (region
+ * {@value #HISTORY_REGION}); Hibernate invalidates cached results when the tables are written.
+ * </p>
+ */
+public class JpaResultStore implements ResultStore {
+    /** Query cache region of the run history queries. */
+    public static final String HISTORY_REGION = "run_history";
+
+    @Override
+    public void persist(Run run) {
+        MariaDbJpaConnection.inTransaction(em -> em.persist(run));
+    }
+
+    @Override
+    public void persist(RunStatistics statistics) {
+        MariaDbJpaConnection.inTransaction(em -> em.persist(statistics));
+    }
+
+    @Override
+    public void persistAll(List<RunStatistics> batch) {
+        MariaDbJpaConnection.inTransaction(em -> {
+            for (RunStatistics s : batch) {
+                em.persist(s.getRun());
+                em.persist(s);
+            }
+        });
+    }
+
+    @Override
+    public Run findRun(int id) {
+        return MariaDbJpaConnection.query(em -> em.find(Run.class, id));
+    }
+
+    @Override
+    public List<Run> findAllRuns() {
+        return MariaDbJpaConnection.query(em -> em.createQuery("SELECT r FROM Run r", Run.class).getResultList());
+    }
+
+    @Override
+    public RunStatistics findStatistics(int id) {
+        return MariaDbJpaConnection.query(em -> em.find(RunStatistics.class, id));
+    }
+
+    @Override
+    public List<RunStatistics> findAllStatistics() {
+        return MariaDbJpaConnection.query(em -> em.createQuery("SELECT s FROM RunStatistics s", RunStatistics.class).getResultList());
+    }
+
+    @Override
+    public RunStatistics findByRunId(int runId) {
+        return MariaDbJpaConnection.query(em -> cached(em.createQuery(
+                        "SELECT s FROM RunStatistics s JOIN FETCH s.run r WHERE r.id = :runId", RunStatistics.class))
+                .setParameter("runId", runId)
+                .getResultStream()
+                .findFirst()
+                .orElse(null));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Each run is fetched together with its statistics in one query, so a page costs one round
+     * trip whatever its size.
+     */
+    @Override
+    public List<RunStatistics> findPageAfter(int afterRunId, int skip, int max) {
+        return MariaDbJpaConnection.query(em -> cached(em.createQuery(
+                        "SELECT s FROM RunStatistics s JOIN FETCH s.run r WHERE r.id > :afterRunId ORDER BY r.id",
+                        RunStatistics.class))
+                .setParameter("afterRunId", afterRunId)
+                .setFirstResult(skip)
+                .setMaxResults(max)
+                .getResultList());
+    }
+
+    @Override
+    public long count() {
+        return MariaDbJpaConnection.query(em -> cached(em.createQuery(
+                "SELECT COUNT(s) FROM RunStatistics s", Long.class)).getSingleResult());
+    }
+
+    @Override
+    public RunStatistics findLatest() {
+        return MariaDbJpaConnection.query(em -> cached(em.createQuery(
+                        "SELECT s FROM RunStatistics s JOIN FETCH s.run r ORDER BY r.id DESC", RunStatistics.class))
+                .setMaxResults(1)
+                .getResultStream()
+                .findFirst()
+                .orElse(null));
+    }
+
+    @Override
+    public void update(Run run) {
+        MariaDbJpaConnection.inTransaction(em -> em.merge(run));
+    }
+
+    @Override
+    public void update(RunStatistics statistics) {
+        MariaDbJpaConnection.inTransaction(em -> em.merge(statistics));
+    }
+
+    @Override
+    public void delete(Run run) {
+        MariaDbJpaConnection.inTransaction(em -> em.remove(em.contains(run) ? run : em.merge(run)));
+    }
+
+    @Override
+    public void delete(RunStatistics statistics) {
+        MariaDbJpaConnection.inTransaction(em -> em.remove(em.contains(statistics) ? statistics : em.merge(statistics)));
+    }
+
+    /** The connections are shared by the program and live as long as it. */
+    @Override
+    public void close() {
+    }
+
+    private static <T> TypedQuery<T> cached(TypedQuery<T> query) {
+        return query.setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, HISTORY_REGION);
+    }
+}
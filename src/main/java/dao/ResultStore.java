@@ -0,0 +1,117 @@
+package dao;
+
+import simu.model.entity.Run;
+import simu.model.entity.RunStatistics;
+
+import java.util.List;
+
+/**
+ * Storage of finished runs and their statistics, behind {@link RunDao}, {@link RunStatisticsDao}
+ * and the {@link AsyncResultWriter}.
+ * <p>
+ * {@link JpaResultStore} keeps them in the MariaDB database of {@code persistence.xml};
+ * {@link FileResultStore} in a local append-only file, for machines without a database server.
+ * {@link ResultStores} selects the store of the program. Returned entities are detached: changing
+ * them does not change the store.
+ * </p>
+ */
+public interface ResultStore extends AutoCloseable {
+
+    /**
+     * Stores a run; assigns its id.
+     * @param run run to store
+     */
+    void persist(Run run);
+
+    /**
+     * Stores run statistics whose run is already stored; assigns their id.
+     * @param statistics statistics to store
+     */
+    void persist(RunStatistics statistics);
+
+    /**
+     * Stores finished runs together with their statistics in one operation; assigns the ids.
+     * @param batch statistics, each with a run that is not stored yet
+     */
+    void persistAll(List<RunStatistics> batch);
+
+    /**
+     * @param id id of the run
+     * @return the run, or null if there is none with that id
+     */
+    Run findRun(int id);
+
+    /**
+     * @return all runs
+     */
+    List<Run> findAllRuns();
+
+    /**
+     * @param id id of the statistics (not of the run)
+     * @return the statistics, or null if there are none with that id
+     */
+    RunStatistics findStatistics(int id);
+
+    /**
+     * @return the statistics of all runs
+     */
+    List<RunStatistics> findAllStatistics();
+
+    /**
+     * @param runId id of the run
+     * @return statistics of the run with the run attached, or null if the run has none
+     */
+    RunStatistics findByRunId(int runId);
+
+    /**
+     * Keyset paging: the runs with an id above the last run of the previous page, in run id order.
+     * The store seeks to that id on the primary key instead of counting off every earlier row, so
+     * a page deep in a large history costs as much as the first one.
+     * @param afterRunId id of the last run of the previous page; 0 for the first page
+     * @param skip runs after {@code afterRunId} to pass over first, to jump to a page whose
+     *             predecessor has not been loaded; 0 when paging in order
+     * @param max maximum number of runs on the page
+     * @return statistics with their runs attached
+     */
+    List<RunStatistics> findPageAfter(int afterRunId, int skip, int max);
+
+    /**
+     * @return number of runs that have statistics, i.e. the rows {@link #findPageAfter(int, int, int)} pages through
+     */
+    long count();
+
+    /**
+     * @return statistics of the run with the highest id with the run attached, or null if there are none
+     */
+    RunStatistics findLatest();
+
+    /**
+     * Replaces a stored run.
+     * @param run run with the id of a stored run
+     */
+    void update(Run run);
+
+    /**
+     * Replaces stored run statistics.
+     * @param statistics statistics with the id of stored statistics
+     */
+    void update(RunStatistics statistics);
+
+    /**
+     * Removes a run.
+     * @param run stored run
+     */
+    void delete(Run run);
+
+    /**
+     * Removes run statistics.
+     * @param statistics stored statistics
+     */
+    void delete(RunStatistics statistics);
+
+    /**
+     * Releases the resources of the store.
+     */
+    @Override
+    void close();
+}
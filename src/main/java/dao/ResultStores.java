@@ -0,0 +1,51 @@
+package dao;
+
+import java.nio.file.Path;
+
+/**
+ * Holds the {@link ResultStore} of the program.
+ * <p>
+ * By default runs are stored in MariaDB. With the system property
+ * {@code -Dairport.store=file} they go to the local file named by {@code airport.store.file}
+ * (default {@value #DEFAULT_FILE}) instead, which needs no database server. A program can also
+ * choose the store with {@link #setDefault(ResultStore)} before the first run is stored.
+ * </p>
+ */
+public final class ResultStores {
+    /** System property selecting the store: {@code mariadb} (default) or {@code file}. */
+    public static final String STORE_PROPERTY = "airport.store";
+    /** System property with the file of the file store. */
+    public static final String FILE_PROPERTY = "airport.store.file";
+    /** File of the file store if {@link #FILE_PROPERTY} is not set. */
+    public static final String DEFAULT_FILE = "airport-results.csv";
+
+    private static ResultStore store;
+
+    private ResultStores() {
+    }
+
+    /**
+     * Returns the store of the program, creating it from the system properties on first use.
+     * @return the store
+     * @throws IllegalArgumentException if {@value #STORE_PROPERTY} names no known store
+     */
+    public static synchronized ResultStore getDefault() {
+        if (store == null) {
+            String kind = System.getProperty(STORE_PROPERTY, "mariadb");
+            switch (kind) {
+                case "mariadb" -> store = new JpaResultStore();
+                case "file" -> store = new FileResultStore(Path.of(System.getProperty(FILE_PROPERTY, DEFAULT_FILE)));
+                default -> throw new IllegalArgumentException("unknown " + STORE_PROPERTY + ": " + kind);
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Sets the store of the program.
+     * @param resultStore the store used from now on
+     */
+    public static synchronized void setDefault(ResultStore resultStore) {
+        store = resultStore;
+    }
+}
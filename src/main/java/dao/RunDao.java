@@ -1,7 +1,6 @@
 package dao;
 
 
-import jakarta.persistence.EntityManager;
 import simu.model.entity.Run;
 
 import java.util.List;
@@ -9,11 +8,26 @@ import java.util.List;
 /**
  * Dao class for simulation run settings.
  * Meant to save, update, find and delete Run instance {@link Run}
- * from the database.
+ * from the {@link ResultStore} of the program.
  * @author Elias Rinne
  */
 
 public class RunDao {
+    private final ResultStore store;
+
+    /**
+     * Dao on the store of the program, see {@link ResultStores#getDefault()}.
+     */
+    public RunDao() {
+        this(ResultStores.getDefault());
+    }
+
+    /**
+     * @param store store to read and write
+     */
+    public RunDao(ResultStore store) {
+        this.store = store;
+    }
 
     /**
      * Method for saving simulation run information such as queue lengths to the database
@@ -21,10 +35,7 @@ public class RunDao {
      * @author Elias Rinne
      */
     public void persist(Run run) {
-        EntityManager em = datasource.MariaDbJpaConnection.getInstance();
-        em.getTransaction().begin();
-        em.persist(run);
-        em.getTransaction().commit();
+        store.persist(run);
     }
 
     /**
@@ -34,9 +45,7 @@ public class RunDao {
      * @author Elias Rinne
      */
     public Run find(int id) {
-        EntityManager em = datasource.MariaDbJpaConnection.getInstance();
-        Run run = em.find(Run.class, id);
-        return run;
+        return store.findRun(id);
     }
     /**
      * Method to find all runs from the database
@@ -44,9 +53,7 @@ public class RunDao {
      * @author Elias Rinne
      */
     public List<Run> findAll() {
-        EntityManager em = datasource.MariaDbJpaConnection.getInstance();
-        List<Run> runList = em.createQuery("SELECT r FROM Run r").getResultList();
-        return runList;
+        return store.findAllRuns();
     }
     /**
      * Method to update Run table in the database, no usages yet
@@ -54,10 +61,7 @@ public class RunDao {
      * @author Elias Rinne
      */
     public void update(Run r) {
-        EntityManager em = datasource.MariaDbJpaConnection.getInstance();
-        em.getTransaction().begin();
-        em.merge(r);
-        em.getTransaction().commit();
+        store.update(r);
     }
 
     /**
@@ -66,9 +70,6 @@ public class RunDao {
      * @author Elias Rinne
      */
     public void delete(Run r) {
-        EntityManager em = datasource.MariaDbJpaConnection.getInstance();
-        em.getTransaction().begin();
-        em.remove(r);
-        em.getTransaction().commit();
+        store.delete(r);
     }
 }
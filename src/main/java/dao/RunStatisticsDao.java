@@ -1,6 +1,5 @@
 package dao;
 
-import jakarta.persistence.EntityManager;
 import simu.model.entity.RunStatistics;
 
 import java.util.List;
@@ -8,10 +7,25 @@ import java.util.List;
 /**
  * Dao class for simulation run statistic settings.
  * Meant to save, update, find and delete Run instance {@link RunStatistics}
- * from the database.
+ * from the {@link ResultStore} of the program.
  * @author Elias Rinne
  */
 public class RunStatisticsDao {
+    private final ResultStore store;
+
+    /**
+     * Dao on the store of the program, see {@link ResultStores#getDefault()}.
+     */
+    public RunStatisticsDao() {
+        this(ResultStores.getDefault());
+    }
+
+    /**
+     * @param store store to read and write
+     */
+    public RunStatisticsDao(ResultStore store) {
+        this.store = store;
+    }
 
     /**
      * Method for saving simulation run information such as max and average queue lengths to the database
@@ -19,10 +33,7 @@ public class RunStatisticsDao {
      * @author Elias Rinne
      */
     public void persist(RunStatistics runS) {
-        EntityManager em = datasource.MariaDbJpaConnection.getInstance();
-        em.getTransaction().begin();
-        em.persist(runS);
-        em.getTransaction().commit();
+        store.persist(runS);
     }
 
     /**
@@ -33,9 +44,46 @@ public class RunStatisticsDao {
      */
 
     public RunStatistics find(int id) {
-        EntityManager em = datasource.MariaDbJpaConnection.getInstance();
-        RunStatistics runS = em.find(RunStatistics.class, id);
-        return runS;
+        return store.findStatistics(id);
+    }
+
+    /**
+     * Method to find the statistics of a run by the id of the run (column {@code run_id}).
+     * The run is fetched in the same query.
+     * @param runId primary key of the run
+     * @return statistics with their {@link simu.model.entity.Run}, or null if the run has none
+     */
+    public RunStatistics findByRunId(int runId) {
+        return store.findByRunId(runId);
+    }
+
+    /**
+     * Method to find one page of runs with their statistics, ordered by run id, by keyset: the
+     * runs after the last run of the previous page. Each run is fetched together with its
+     * statistics in one query, so a page costs one round trip whatever its size.
+     * @param afterRunId id of the last run of the previous page, 0 for the first page
+     * @param skip runs to pass over after {@code afterRunId}, 0 when paging in order
+     * @param max maximum number of runs on the page
+     * @return statistics with their {@link simu.model.entity.Run}
+     */
+    public List<RunStatistics> findPageAfter(int afterRunId, int skip, int max) {
+        return store.findPageAfter(afterRunId, skip, max);
+    }
+
+    /**
+     * Method to count the runs that have statistics, i.e. the rows {@link #findPageAfter(int, int, int)} pages through
+     * @return number of run statistics in the database
+     */
+    public long count() {
+        return store.count();
+    }
+
+    /**
+     * Method to find the most recently stored run with its statistics
+     * @return statistics with their {@link simu.model.entity.Run}, or null if no run is stored
+     */
+    public RunStatistics findLatest() {
+        return store.findLatest();
     }
 
     /**
@@ -45,9 +93,7 @@ public class RunStatisticsDao {
      */
 
     public List<RunStatistics> findAll() {
-        EntityManager em = datasource.MariaDbJpaConnection.getInstance();
-        List<RunStatistics> runSList = em.createQuery("SELECT r FROM Run r").getResultList();
-        return runSList;
+        return store.findAllStatistics();
     }
     /**
      * Method to update run statistic table in the database, no usages yet
@@ -56,10 +102,7 @@ public class RunStatisticsDao {
      */
 
     public void update(RunStatistics runS) {
-        EntityManager em = datasource.MariaDbJpaConnection.getInstance();
-        em.getTransaction().begin();
-        em.merge(runS);
-        em.getTransaction().commit();
+        store.update(runS);
     }
 
     /**
@@ -68,9 +111,6 @@ public class RunStatisticsDao {
      * @author Elias Rinne
      */
     public void delete(RunStatistics runS) {
-        EntityManager em = datasource.MariaDbJpaConnection.getInstance();
-        em.getTransaction().begin();
-        em.remove(runS);
-        em.getTransaction().commit();
+        store.delete(runS);
     }
 }
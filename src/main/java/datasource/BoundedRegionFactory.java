@@ -0,0 +1,149 @@
+package datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hibernate second-level cache kept in memory, one bounded Caffeine cache per region.
+ * <p>
+ * Entity and query result regions hold at most {@value #MAXIMUM_SIZE_SETTING} entries each
+ * (default {@value #DEFAULT_MAXIMUM_SIZE}); beyond that the entries least likely to be used again
+ * are evicted, so browsing a long run history keeps memory bounded. The update timestamps region,
+ * which tells Hibernate whether a cached query result is stale, is never evicted: it has one
+ * entry per table. Every region counts its hits, misses and evictions; see {@link #statistics()}.
+ * </p>
+ * Enabled in {@code persistence.xml} with {@code hibernate.cache.region.factory_class}.
+ */
+public class BoundedRegionFactory extends RegionFactoryTemplate {
+    /** Property with the maximum number of entries of each entity and query region. */
+    public static final String MAXIMUM_SIZE_SETTING = "airport.cache.maximum_size";
+    /** Maximum number of entries per region if {@link #MAXIMUM_SIZE_SETTING} is not set. */
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BoundedRegionFactory.class);
+
+    private final Map<String, CaffeineStorage> regions = new ConcurrentHashMap<>();
+    private long maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        Object size = configValues.get(MAXIMUM_SIZE_SETTING);
+        if (size != null) {
+            maximumSize = Long.parseLong(size.toString().trim());
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException(MAXIMUM_SIZE_SETTING + " must be > 0");
+            }
+        }
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        statistics().forEach((region, stats) -> LOGGER.debug("Cache region {}: {}", region, stats));
+        regions.values().forEach(CaffeineStorage::release);
+        regions.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return register(regionConfig.getRegionName(), new CaffeineStorage(maximumSize));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return register(regionName, new CaffeineStorage(maximumSize));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        return register(regionName, new CaffeineStorage(0));
+    }
+
+    /**
+     * @return hit, miss and eviction counts of every region, by region name
+     */
+    public Map<String, CacheStats> statistics() {
+        Map<String, CacheStats> stats = new TreeMap<>();
+        regions.forEach((name, storage) -> stats.put(name, storage.stats()));
+        return stats;
+    }
+
+    private CaffeineStorage register(String regionName, CaffeineStorage storage) {
+        regions.put(regionName, storage);
+        return storage;
+    }
+
+    /** Storage of one region. */
+    static final class CaffeineStorage implements DomainDataStorageAccess {
+        private final Cache<Object, Object> cache;
+
+        /**
+         * @param maximumSize maximum number of entries, or 0 for no bound
+         */
+        CaffeineStorage(long maximumSize) {
+            Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                    .executor(Runnable::run) // evict on the calling thread, no pool threads
+                    .recordStats();
+            if (maximumSize > 0) {
+                builder.maximumSize(maximumSize);
+            }
+            cache = builder.build();
+        }
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return cache.getIfPresent(key);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            cache.put(key, value);
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return cache.asMap().containsKey(key);
+        }
+
+        @Override
+        public void evictData() {
+            cache.invalidateAll();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            cache.invalidate(key);
+        }
+
+        @Override
+        public void release() {
+            cache.invalidateAll();
+        }
+
+        CacheStats stats() {
+            return cache.stats();
+        }
+
+        long size() {
+            cache.cleanUp();
+            return cache.estimatedSize();
+        }
+    }
+}
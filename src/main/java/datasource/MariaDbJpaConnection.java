@@ -1,34 +1,124 @@
 package datasource;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
 import jakarta.persistence.Persistence;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Database connection class for simulation run statistic settings.
- * Build as singleton to ensure one instance per program.
+ * Holds the one EntityManagerFactory of the program; the connections behind it come from the
+ * pool configured in {@code persistence.xml}.
+ * <p>
+ * An EntityManager is not thread-safe, so none is shared between threads. DAOs run each
+ * operation on a fresh EntityManager with {@link #query(Function)} or
+ * {@link #inTransaction(Consumer)}, which borrows a pooled connection only for the duration of
+ * the operation. The engine, the result writer and the JavaFX thread can then use the database
+ * in parallel. Entities returned by these methods are detached.
+ * </p>
+ * <p>
+ * The EntityManagers share the second-level cache of the factory ({@link BoundedRegionFactory}),
+ * so a run read once is served from memory by later operations on any thread.
+ * </p>
  * @author Elias Rinne
  */
 
 public class MariaDbJpaConnection {
 
     private static EntityManagerFactory emf = null;
-    private static EntityManager em = null;
+    private static final ThreadLocal<EntityManager> threadEm = new ThreadLocal<>();
 
     /**
-     * Returns EntityManager instance. If not made, makes it.
-     * @return EntityManager instance
+     * Returns the EntityManager of the calling thread. If not made, makes it.
+     * @return EntityManager instance confined to the calling thread
      * @author Elias Rinne
+     * @deprecated keeps an EntityManager (and its persistence context) open for the lifetime of
+     * the thread; use {@link #query(Function)} or {@link #inTransaction(Consumer)}
      */
-
+    @Deprecated
     public static EntityManager getInstance() {
+        EntityManager em = threadEm.get();
+        if (em == null) {
+            em = getFactory().createEntityManager();
+            threadEm.set(em);
+        }
+        return em;
+    }
+
+    /**
+     * Creates a new EntityManager for a caller that needs its own, e.g. a background writer
+     * thread. The caller closes it.
+     * @return new EntityManager instance
+     */
+    public static EntityManager createEntityManager() {
+        return getFactory().createEntityManager();
+    }
+
+    /**
+     * Runs a read operation on a new EntityManager and closes it.
+     * @param work the operation
+     * @param <T> result type
+     * @return the result of {@code work}
+     */
+    public static <T> T query(Function<EntityManager, T> work) {
+        EntityManager em = createEntityManager();
+        try {
+            return work.apply(em);
+        } finally {
+            em.close();
+        }
+    }
 
-        if (em==null) {
-            if (emf==null) {
-                emf = Persistence.createEntityManagerFactory("AirportSimulator");
+    /**
+     * Runs a write operation in a transaction on a new EntityManager and closes it. The
+     * transaction is rolled back if {@code work} throws.
+     * @param work the operation
+     */
+    public static void inTransaction(Consumer<EntityManager> work) {
+        EntityManager em = createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        try {
+            tx.begin();
+            work.accept(em);
+            tx.commit();
+        } catch (RuntimeException e) {
+            if (tx.isActive()) {
+                tx.rollback();
             }
-            em = emf.createEntityManager();
+            throw e;
+        } finally {
+            em.close();
         }
-        return em;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the hit, miss and eviction counts of the second-level and query cache regions.
+     * @return statistics by region name; empty if the database has not been used yet or the cache
+     * is not a {@link BoundedRegionFactory}
+     */
+    public static Map<String, CacheStats> getCacheStatistics() {
+        EntityManagerFactory factory;
+        synchronized (MariaDbJpaConnection.class) {
+            factory = emf;
+        }
+        if (factory == null) {
+            return Map.of();
+        }
+        RegionFactory regions = factory.unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory();
+        return regions instanceof BoundedRegionFactory bounded ? bounded.statistics() : Map.of();
+    }
+
+    private static synchronized EntityManagerFactory getFactory() {
+        if (emf==null) {
+            emf = Persistence.createEntityManagerFactory("AirportSimulator");
+        }
+        return emf;
+    }
+}
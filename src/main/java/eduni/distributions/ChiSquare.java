@@ -40,5 +40,7 @@ public class ChiSquare extends Generator implements ContinuousGenerator {
      * Generate a new random number.
      * @return The next random number in the sequence
      */
-    public double sample() { return distrib.chisquare(deg_freedom); }
+    public double sample() {
+	return method == SamplingMethod.ZIGGURAT ? distrib.marsagliaTsangChisquare(deg_freedom) : distrib.chisquare(deg_freedom);
+    }
 }
@@ -6,4 +6,17 @@ import eduni.distributions.Seedable;
  */
 public interface ContinuousGenerator extends Seedable {
     double sample(); 
+
+    /**
+     * Fills <code>out[off]</code> to <code>out[off+len-1]</code> with samples. The default calls
+     * {@link #sample()} for each of them; generators override it with a faster bulk algorithm,
+     * which may consume the underlying uniforms differently, so a bulk fill does not have to
+     * return the same numbers as repeated <code>sample()</code> calls with the same seed.
+     * @param out destination array
+     * @param off first index to write
+     * @param len number of samples
+     */
+    default void sample(double[] out, int off, int len) {
+	for (int i = off; i < off + len; i++) out[i] = sample();
+    }
 }
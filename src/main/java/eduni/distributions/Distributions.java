@@ -22,6 +22,15 @@ public class Distributions {
      */
     public Distributions(ContinuousGenerator gen) { source = gen; }
 
+    /** Scratch block of uniforms for the bulk methods, grown on demand. */
+    private double[] uniforms = new double[0];
+
+    private double[] uniforms(int count) {
+	if (uniforms.length < count) uniforms = new double[Math.max(count, 2 * uniforms.length)];
+	source.sample(uniforms, 0, count);
+	return uniforms;
+    }
+
     // discrete distributions
     /** computes a Bernoulli's distribution
      * @return 1 iif <i>sample</i> &le; prob, 0 otherwise; <i>sample</i> is provided by the PRGN
@@ -128,13 +137,15 @@ public class Distributions {
     }
 
     /** computes a chisquare distribution
-     * @return &sum;(i=0; i&lt;deg_freedom; normal(0,1))
+     * @return &sum;(i=0; i&lt;deg_freedom; normal(0,1)&sup2;)
      */
     public double chisquare(long deg_freedom) {
-	// use normal2 because sqrt(1)=1
+	// sum of deg_freedom squared standard normals
 	double result = 0.0;
-	for (long i=0L; i < deg_freedom; i++)
-	    result += normal2(0.0, 1.0);
+	for (long i=0L; i < deg_freedom; i++) {
+	    double z = normal2(0.0, 1.0);
+	    result += z * z;
+	}
 	return result;
     }
     
@@ -202,7 +213,7 @@ public class Distributions {
      * @return exp(mean + std_dev * normal(0,1))
      */
     public double lognormal2(double mean, double std_dev) { 
-	// use normal2 because sqrt(1)=1
+	// sum of deg_freedom squared standard normals
 	return Math.exp(mean+std_dev*normal2(0.0, 1.0));
     }
 
@@ -229,6 +240,140 @@ public class Distributions {
 	return mean + std_dev * Math.cos(2 * Math.PI * u1) * Math.sqrt(-2 * Math.log(u2));
     }
 
+    // constant-time versions (SamplingMethod.ZIGGURAT): same distributions, other numbers
+
+    /** computes a normal distribution with the Ziggurat method
+     * @param std_dev is assumed to be the square root of the variance.
+     * @return mean + std_dev * normal(0,1)
+     */
+    public double zigguratNormal(double mean, double std_dev) {
+	return mean + std_dev * Ziggurat.normal(source);
+    }
+
+    /** computes a lognormal distribution with the Ziggurat method
+     * @param std_dev is assumed to be the square root of the variance.
+     * @return exp(mean + std_dev * normal(0,1))
+     */
+    public double zigguratLognormal(double mean, double std_dev) {
+	return Math.exp(mean + std_dev * Ziggurat.normal(source));
+    }
+
+    /** computes a negexp distribution with the Ziggurat method
+     * @return mean * negexp(1)
+     */
+    public double zigguratNegexp(double mean) {
+	return mean * Ziggurat.exponential(source);
+    }
+
+    /** computes a gamma distribution with the method of Marsaglia and Tsang (2000):
+     * one Ziggurat normal and one uniform per attempt, accepted with probability &gt; 0.95
+     * for any shape &ge; 1. A shape &lt; 1 is boosted by one and corrected with
+     * <i>sample</i>^(1/shape).
+     */
+    public double marsagliaTsangGamma(double scale, double shape) {
+	if (shape < 1.0)
+	    return marsagliaTsangGamma(scale, shape + 1.0) * Math.pow(source.sample(), 1.0 / shape);
+	double d = shape - 1.0 / 3.0, c = 1.0 / Math.sqrt(9.0 * d);
+	for (;;) {
+	    double x, v;
+	    do {
+		x = Ziggurat.normal(source);
+		v = 1.0 + c * x;
+	    } while (v <= 0.0);
+	    v = v * v * v;
+	    double u = source.sample(), x2 = x * x;
+	    if (u < 1.0 - 0.0331 * x2 * x2) return scale * d * v;          // squeeze
+	    if (Math.log(u) < 0.5 * x2 + d * (1.0 - v + Math.log(v))) return scale * d * v;
+	}
+    }
+
+    /** computes a chisquare distribution as gamma(2, deg_freedom/2), in constant time
+     */
+    public double marsagliaTsangChisquare(long deg_freedom) {
+	return marsagliaTsangGamma(2.0, deg_freedom / 2.0);
+    }
+
+    /** computes an Erlang's distribution as a gamma distribution, in constant time; the shape
+     * is rounded up like the number of factors in {@link #erlang(double, double)}
+     */
+    public double marsagliaTsangErlang(double scale, double shape) {
+	double k = Math.ceil(shape);
+	return k > 0.0 ? marsagliaTsangGamma(scale, k) : 0.0;
+    }
+
+    // bulk versions: fill out[off..off+len-1] from one block of uniforms
+
+    /** bulk negexp: -mean * log (<i>sample</i>) for each element */
+    public void negexp(double mean, double[] out, int off, int len) {
+	double[] u = uniforms(len);
+	for (int i = 0; i < len; i++) out[off + i] = -mean * Math.log(u[i]);
+    }
+
+    /** bulk normal: Box-Muller with both variates of each pair of uniforms used
+     * @param std_dev is assumed to be the square root of the variance.
+     */
+    public void normal2(double mean, double std_dev, double[] out, int off, int len) {
+	int pairs = (len + 1) / 2;
+	double[] u = uniforms(2 * pairs);
+	for (int p = 0, i = off, end = off + len; p < pairs; p++) {
+	    double r = std_dev * Math.sqrt(-2 * Math.log(u[2 * p + 1]));
+	    double theta = 2 * Math.PI * u[2 * p];
+	    out[i++] = mean + r * Math.cos(theta);
+	    if (i < end) out[i++] = mean + r * Math.sin(theta);
+	}
+    }
+
+    /** bulk lognormal: exp of a bulk normal
+     * @param std_dev is assumed to be the square root of the variance.
+     */
+    public void lognormal2(double mean, double std_dev, double[] out, int off, int len) {
+	normal2(mean, std_dev, out, off, len);
+	for (int i = off; i < off + len; i++) out[i] = Math.exp(out[i]);
+    }
+
+    /** bulk gamma: for an integer shape -scale * log of the product of <i>shape</i> uniforms,
+     * taken from one block; otherwise one {@link #gamma(double, double)} call per element
+     */
+    public void gamma(double scale, double shape, double[] out, int off, int len) {
+	if (shape != Math.floor(shape) || shape * len > Integer.MAX_VALUE / 2) {
+	    for (int i = off; i < off + len; i++) out[i] = gamma(scale, shape);
+	    return;
+	}
+	int k = (int) shape;
+	double[] u = uniforms(k * len);
+	for (int i = 0, j = 0; i < len; i++) {
+	    double product = 1.0;
+	    for (int e = 0; e < k; e++) product *= u[j++];
+	    out[off + i] = -scale * Math.log(product);
+	}
+    }
+
+    /** bulk Ziggurat normal */
+    public void zigguratNormal(double mean, double std_dev, double[] out, int off, int len) {
+	for (int i = off; i < off + len; i++) out[i] = mean + std_dev * Ziggurat.normal(source);
+    }
+
+    /** bulk Ziggurat lognormal */
+    public void zigguratLognormal(double mean, double std_dev, double[] out, int off, int len) {
+	for (int i = off; i < off + len; i++) out[i] = Math.exp(mean + std_dev * Ziggurat.normal(source));
+    }
+
+    /** bulk Ziggurat negexp */
+    public void zigguratNegexp(double mean, double[] out, int off, int len) {
+	for (int i = off; i < off + len; i++) out[i] = mean * Ziggurat.exponential(source);
+    }
+
+    /** bulk Marsaglia-Tsang gamma */
+    public void marsagliaTsangGamma(double scale, double shape, double[] out, int off, int len) {
+	for (int i = off; i < off + len; i++) out[i] = marsagliaTsangGamma(scale, shape);
+    }
+
+    /** bulk uniform: min + (max-min) * <i>sample</i> for each element */
+    public void uniform(double min, double max, double[] out, int off, int len) {
+	source.sample(out, off, len);
+	for (int i = off; i < off + len; i++) out[i] = (max - min) * out[i] + min;
+    }
+
     /** computes a pareto distribution; <i>sample</i> is provided by the PRGN
      * @return scale / (<i>sample</i>^(1/shape))
      */
@@ -240,7 +385,7 @@ public class Distributions {
      * @return normal(0,1)/&radic;(chisquare(deg_freedom)/deg_freedom)
      */
     public double tstudent(long deg_freedom) {
-	// use normal2 because sqrt(1)=1
+	// sum of deg_freedom squared standard normals
 	return normal2(0.0, 1.0)/Math.sqrt(chisquare(deg_freedom)/deg_freedom);
     }
 
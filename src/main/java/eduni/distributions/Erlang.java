@@ -43,5 +43,7 @@ public class Erlang extends Generator implements ContinuousGenerator {
      * Generate a new random number.
      * @return The next random number in the sequence
      */
-    public double sample() { return distrib.erlang(shape, scale); }
+    public double sample() {
+	return method == SamplingMethod.ZIGGURAT ? distrib.marsagliaTsangErlang(shape, scale) : distrib.erlang(shape, scale);
+    }
 }
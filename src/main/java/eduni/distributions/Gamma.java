@@ -32,6 +32,18 @@ public class Gamma extends Generator implements ContinuousGenerator {
 	set(scale, shape);
     }
     
+    /**
+     * The constructor with which the uniform source of the generator is given,
+     * e.g. a stream split from a {@link SplittableSource}
+     * @param scale The scale of the distribution
+     * @param shape The shape of the distribution
+     * @param source The uniform source, used by this generator only
+     */
+    public Gamma(double scale, double shape, ContinuousGenerator source) {
+	super(source);
+	set(scale, shape);
+    }
+    
     private void set(double scale, double shape) {
 	if ((scale <= 0.0) || (shape <= 0.0))
 	    throw new ParameterException("Gamma: The scale and shape parameters must be greater than 0.");
@@ -43,5 +55,15 @@ public class Gamma extends Generator implements ContinuousGenerator {
      * Generate a new random number.
      * @return The next random number in the sequence
      */
-    public double sample() { return distrib.gamma(scale, shape); }
+    public double sample() {
+	return method == SamplingMethod.ZIGGURAT ? distrib.marsagliaTsangGamma(scale, shape) : distrib.gamma(scale, shape);
+    }
+
+    /**
+     * Bulk generation from one block of uniforms.
+     */
+    public void sample(double[] out, int off, int len) {
+	if (method == SamplingMethod.ZIGGURAT) distrib.marsagliaTsangGamma(scale, shape, out, off, len);
+	else distrib.gamma(scale, shape, out, off, len);
+    }
 }
@@ -5,8 +5,28 @@ package eduni.distributions;
  */
 public abstract class Generator implements Seedable {
     protected Distributions distrib;
+    /** Algorithm used by <code>sample()</code>; only some generators have alternatives. */
+    protected SamplingMethod method = SamplingMethod.CLASSIC;
     Generator () { distrib = new Distributions(); }
     Generator (long seed) { distrib = new Distributions(seed); }
+    Generator (ContinuousGenerator source) { distrib = new Distributions(source); }
+
+    /**
+     * Selects the sampling algorithm. {@link Normal}, {@link LogNormal}, {@link Negexp},
+     * {@link Gamma}, {@link Erlang} and {@link ChiSquare} support
+     * {@link SamplingMethod#ZIGGURAT}; the other generators ignore the setting.
+     * @param method the algorithm, {@link SamplingMethod#CLASSIC} by default
+     */
+    public void setSamplingMethod(SamplingMethod method) {
+	if (method == null)
+	    throw new ParameterException("Generator: The sampling method must not be null.");
+	this.method = method;
+    }
+
+    /**
+     * @return the sampling algorithm
+     */
+    public SamplingMethod getSamplingMethod() { return method; }
     
     // ----- implements Seedable { -----
     public void setSeed(long seed) { distrib.source.setSeed(seed); }
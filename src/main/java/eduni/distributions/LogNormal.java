@@ -30,9 +30,30 @@ public class LogNormal extends Normal {
 	super(mean, variance, seed);
     }
     
+    /**
+     * The constructor with which the uniform source of the generator is given,
+     * e.g. a stream split from a {@link SplittableSource}
+     * @param mean The mean of the distribution
+     * @param variance The variance of the distribution
+     * @param source The uniform source, used by this generator only
+     */
+    public LogNormal(double mean, double variance, ContinuousGenerator source) {
+	super(mean, variance, source);
+    }
+    
     /**
      * Generate a new random number.
      * @return The next random number in the sequence
      */
-    public double sample() { return distrib.lognormal2(mean, std_dev); }
+    public double sample() {
+	return method == SamplingMethod.ZIGGURAT ? distrib.zigguratLognormal(mean, std_dev) : distrib.lognormal2(mean, std_dev);
+    }
+
+    /**
+     * Bulk generation, using both Box-Muller variates of each pair of uniforms.
+     */
+    public void sample(double[] out, int off, int len) {
+	if (method == SamplingMethod.ZIGGURAT) distrib.zigguratLognormal(mean, std_dev, out, off, len);
+	else distrib.lognormal2(mean, std_dev, out, off, len);
+    }
 }
@@ -27,6 +27,16 @@ public class Negexp extends Generator implements ContinuousGenerator {
         set(mean);
     }
 
+    /**
+     * The constructor with which the uniform source of the generator is given,
+     * e.g. a stream split from a {@link SplittableSource}
+     * @param source The uniform source, used by this generator only
+     */
+    public Negexp(double mean, ContinuousGenerator source) {
+        super(source);
+        set(mean);
+    }
+
     private void set(double mean) {
         if (mean<=0)
             throw new ParameterException("Negexp: The mean must be greater than 0.");
@@ -38,6 +48,14 @@ public class Negexp extends Generator implements ContinuousGenerator {
      * @return The next random number in the sequence
      */
     public double sample() { 
-         return distrib.negexp(mean);
+         return method == SamplingMethod.ZIGGURAT ? distrib.zigguratNegexp(mean) : distrib.negexp(mean);
+    }
+
+    /**
+     * Bulk generation from one block of uniforms.
+     */
+    public void sample(double[] out, int off, int len) {
+        if (method == SamplingMethod.ZIGGURAT) distrib.zigguratNegexp(mean, out, off, len);
+        else distrib.negexp(mean, out, off, len);
     }
 }
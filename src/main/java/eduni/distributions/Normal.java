@@ -32,6 +32,18 @@ public class Normal extends Generator implements ContinuousGenerator {
 	set(mean, variance);
     }
     
+    /**
+     * The constructor with which the uniform source of the generator is given,
+     * e.g. a stream split from a {@link SplittableSource}
+     * @param mean The mean of the distribution
+     * @param variance The variance of the distribution
+     * @param source The uniform source, used by this generator only
+     */
+    public Normal(double mean, double variance, ContinuousGenerator source) {
+	super(source);
+	set(mean, variance);
+    }
+    
     private void set(double mean, double variance) {
 	if (variance <= 0.0)
 	    throw new ParameterException("Normal: The variance must be greater than 0.");
@@ -43,5 +55,15 @@ public class Normal extends Generator implements ContinuousGenerator {
      * Generate a new random number.
      * @return The next random number in the sequence
      */
-    public double sample() { return distrib.normal2(mean, std_dev); }
+    public double sample() {
+	return method == SamplingMethod.ZIGGURAT ? distrib.zigguratNormal(mean, std_dev) : distrib.normal2(mean, std_dev);
+    }
+
+    /**
+     * Bulk generation, using both Box-Muller variates of each pair of uniforms.
+     */
+    public void sample(double[] out, int off, int len) {
+	if (method == SamplingMethod.ZIGGURAT) distrib.zigguratNormal(mean, std_dev, out, off, len);
+	else distrib.normal2(mean, std_dev, out, off, len);
+    }
 }
@@ -0,0 +1,89 @@
+package eduni.distributions;
+
+/**
+ * Cumulative distribution function of the standard normal distribution and its inverse, both
+ * to about double precision and without loops, for inverse-CDF sampling.
+ */
+final class NormalCdf {
+    private NormalCdf() {}
+
+    private static final double SQRT_2PI = 2.506628274631000502;
+
+    /**
+     * Hart's algorithm 5666 in the form given by West (2005): absolute error about 1e-15 and,
+     * for x &lt; 0, a relative error below 1e-8 far into the tail.
+     * @param x any value
+     * @return P(Z &le; x); exactly 0 below -37 and 1 above 37
+     */
+    static double cdf(double x) {
+        double z = Math.abs(x);
+        double p;
+        if (z > 37.0) {
+            p = 0.0;
+        } else {
+            double e = Math.exp(-0.5 * z * z);
+            if (z < 7.07106781186547) {
+                double n = 3.52624965998911e-02 * z + 0.700383064443688;
+                n = n * z + 6.37396220353165;
+                n = n * z + 33.912866078383;
+                n = n * z + 112.079291497871;
+                n = n * z + 221.213596169931;
+                n = n * z + 220.206867912376;
+                double d = 8.83883476483184e-02 * z + 1.75566716318264;
+                d = d * z + 16.064177579207;
+                d = d * z + 86.7807322029461;
+                d = d * z + 296.564248779674;
+                d = d * z + 637.333633378831;
+                d = d * z + 793.826512519948;
+                d = d * z + 440.413735824752;
+                p = e * n / d;
+            } else {
+                double f = z + 0.65;
+                f = z + 4.0 / f;
+                f = z + 3.0 / f;
+                f = z + 2.0 / f;
+                f = z + 1.0 / f;
+                p = e / f / SQRT_2PI;
+            }
+        }
+        return x > 0 ? 1.0 - p : p;
+    }
+
+    private static final double[] A = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+            1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+    private static final double[] B = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+            6.680131188771972e+01, -1.328068155288572e+01};
+    private static final double[] C = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+            -2.549671010115750e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+    private static final double[] D = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+            3.754408661907416e+00};
+    private static final double P_LOW = 0.02425;
+
+    /**
+     * Acklam's rational approximation (relative error 1.15e-9), refined by one Halley step on
+     * {@link #cdf(double)}.
+     * @param p probability in (0,1)
+     * @return x with P(Z &le; x) = p
+     */
+    static double inverse(double p) {
+        double x;
+        if (p < P_LOW) {
+            x = lowerTail(p);
+        } else if (p <= 1.0 - P_LOW) {
+            double q = p - 0.5, r = q * q;
+            x = (((((A[0] * r + A[1]) * r + A[2]) * r + A[3]) * r + A[4]) * r + A[5]) * q
+                    / (((((B[0] * r + B[1]) * r + B[2]) * r + B[3]) * r + B[4]) * r + 1.0);
+        } else {
+            x = -lowerTail(1.0 - p);
+        }
+        double e = cdf(x) - p;
+        double u = e * SQRT_2PI * Math.exp(0.5 * x * x);
+        return x - u / (1.0 + 0.5 * x * u);
+    }
+
+    private static double lowerTail(double p) {
+        double q = Math.sqrt(-2.0 * Math.log(p));
+        return (((((C[0] * q + C[1]) * q + C[2]) * q + C[3]) * q + C[4]) * q + C[5])
+                / ((((D[0] * q + D[1]) * q + D[2]) * q + D[3]) * q + 1.0);
+    }
+}
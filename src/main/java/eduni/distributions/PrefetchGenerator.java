@@ -0,0 +1,57 @@
+package eduni.distributions;
+
+/**
+ * Serves single samples of another generator from a block filled with its bulk
+ * {@link ContinuousGenerator#sample(double[], int, int)} method.
+ * <p>
+ * A call to {@link #sample()} is then an array read; the wrapped generator is only called once
+ * per block, and can use its bulk algorithm (e.g. both Box-Muller variates). The numbers are
+ * therefore those of the bulk method, not those of repeated <code>sample()</code> calls of the
+ * wrapped generator. Changing the seed discards what is left in the block.
+ * </p>
+ */
+public class PrefetchGenerator implements ContinuousGenerator {
+    private final ContinuousGenerator generator;
+    private final double[] block;
+    private int next;
+
+    /**
+     * @param generator the generator to read ahead, used by this wrapper only
+     * @param blockSize number of samples generated at once
+     */
+    public PrefetchGenerator(ContinuousGenerator generator, int blockSize) {
+	if (blockSize <= 0)
+	    throw new ParameterException("PrefetchGenerator: The block size must be greater than 0.");
+	this.generator = generator;
+	this.block = new double[blockSize];
+	this.next = blockSize;
+    }
+
+    // ----- implements ContinuousGenerator { -----
+    public double sample() {
+	if (next == block.length) {
+	    generator.sample(block, 0, block.length);
+	    next = 0;
+	}
+	return block[next++];
+    }
+
+    public void sample(double[] out, int off, int len) {
+	int buffered = Math.min(len, block.length - next);
+	System.arraycopy(block, next, out, off, buffered);
+	next += buffered;
+	if (buffered < len) generator.sample(out, off + buffered, len - buffered);
+    }
+    // ----- } implements ContinuousGenerator -----
+
+    /**
+     * @return the wrapped generator
+     */
+    public ContinuousGenerator getGenerator() { return generator; }
+
+    // ----- implements Seedable { -----
+    public void setSeed(long seed) { generator.setSeed(seed); next = block.length; }
+    public long getSeed() { return generator.getSeed(); }
+    public void reseed() { generator.reseed(); next = block.length; }
+    // ----- } implements Seedable -----
+}
@@ -30,18 +30,62 @@ public class RandomGenerator implements ContinuousGenerator {
     public double sample() { 
 	return ((double)nextLong()) / m;
     }
+
+    public void sample(double[] out, int off, int len) {
+	long s = seed;
+	for (int i = off; i < off + len; i++) {
+	    s = mod(a * s);
+	    out[i] = ((double)s) / m;
+	}
+	seed = s;
+    }
     // ----- } implements ContinuousGenerator -----
 
     /**
      * @return The next long random number in the sequence
      */
     public long nextLong() {
-	return seed = (a * seed) % m;
+	return seed = mod(a * seed);
+    }
+
+    /**
+     * <code>x mod (2<sup>31</sup>-1)</code> without a division, for 0 &lt; x &lt; 2<sup>62</sup> not a
+     * multiple of m (true for products of non-zero residues): as m is a Mersenne prime,
+     * x = hi&middot;2<sup>31</sup> + lo is congruent to hi + lo.
+     */
+    private long mod(long x) {
+	long r = (x & m) + (x >>> 31);
+	if (r >= m) r -= m;
+	return r;
+    }
+
+    /**
+     * Computes the multiplier that skips <code>steps</code> numbers of the sequence at once:
+     * <code>a<sup>steps</sup> mod m</code>, by repeated squaring in O(log steps).
+     * @param steps number of numbers to skip
+     * @return the multiplier to pass to {@link #jump(long)}
+     */
+    long jumpMultiplier(long steps) {
+	long result = 1, base = a;
+	for (long e = steps; e > 0; e >>= 1) {
+	    if ((e & 1) != 0) result = mod(result * base);
+	    base = mod(base * base);
+	}
+	return result;
+    }
+
+    /**
+     * Advances the sequence in O(1), with the same result as calling {@link #nextLong()}
+     * the number of times the multiplier was computed for.
+     * @param multiplier a multiplier from {@link #jumpMultiplier(long)}
+     */
+    void jump(long multiplier) {
+	seed = mod(multiplier * seed);
     }
     
     // ----- implements Seedable { -----
     public void setSeed(long seed) { this.seed = seed; }
     public long getSeed() { return seed; }
-    public void reseed() { this.seed = SeedGenerator.getDefaultSeedGenerator().sample(); }
+    public void reseed() { this.seed = SeedGenerator.nextDefaultSeed(); }
     // ----- } implements Seedable -----
 }
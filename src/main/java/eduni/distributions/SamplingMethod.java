@@ -0,0 +1,21 @@
+package eduni.distributions;
+
+/**
+ * Algorithm used by a {@link Generator} to turn uniforms into variates of its distribution,
+ * selected with {@link Generator#setSamplingMethod(SamplingMethod)}.
+ */
+public enum SamplingMethod {
+    /**
+     * The original algorithms of <code>Distributions</code>: Box-Muller for the normal,
+     * <code>-log</code> for the exponential and products of uniforms or beta rejection for the
+     * gamma family. Reproduces the numbers of earlier runs, except
+     * <code>chisquare</code>, <code>f</code> and <code>tstudent</code>, which were wrong.
+     */
+    CLASSIC,
+    /**
+     * Constant expected cost per variate: the Ziggurat for the normal and the exponential, and
+     * Marsaglia-Tsang (on Ziggurat normals) for the gamma family, whatever the shape. The
+     * distribution is the same as with {@link #CLASSIC}, the numbers are not.
+     */
+    ZIGGURAT
+}
@@ -1,18 +1,21 @@
 package eduni.distributions;
 
 /** A SeedGenerator is a DiscreteGenerator which produces well-spaced seeds
- *  according to its spacing attribute. It relies on a <code>RandomGenerator</code>
+ *  according to its spacing attribute. It relies on a <code>RandomGenerator</code>;
+ *  the spacing is skipped with a single jump instead of drawing every number in between.
  */
 public class SeedGenerator implements DiscreteGenerator {
     private static long root = 4851L; // The root seed
     private int spacing;
     private boolean not_sampled = true; // to use the assigned seed (id Costas)
     private RandomGenerator source;
+    private long jump; // multiplier skipping spacing numbers of the source
 
     public SeedGenerator () { this(root, 100000); } //default spacing=100000
     public SeedGenerator (long seed, int spacing) { 
 	source = new RandomGenerator(seed);
 	this.spacing = spacing;
+	this.jump = source.jumpMultiplier(spacing);
     }
 
     // ----- implements Seedable { -----
@@ -25,14 +28,17 @@ public class SeedGenerator implements DiscreteGenerator {
     public long sample() {
 	if (not_sampled) not_sampled = false;
 	else
-	    for (int i=0; i<spacing; i++) source.nextLong();
+	    source.jump(jump);
 	return getSeed();
     }
 
+    // Fallback stream for generators built without a seed. Simulations that run side by side
+    // should each use their own SeedGenerator instance instead; access is synchronized so that
+    // seedless constructors called from several threads never receive the same seed.
     private static SeedGenerator defaut = new SeedGenerator();
     // package: accessible only from the generators within the package
-    static SeedGenerator getDefaultSeedGenerator() { return defaut; }
-    static void setDefaultSeedGenerator(long seed, int spacing) {
+    static synchronized long nextDefaultSeed() { return defaut.sample(); }
+    static synchronized void setDefaultSeedGenerator(long seed, int spacing) {
 	defaut = new SeedGenerator(seed, spacing);
     }
 }
@@ -1,67 +1,111 @@
 package eduni.distributions;
 
-import java.util.Random;
-
 /**
  * Truncated normal distribution generator.
  * Provides a convenience constructor TruncatedNormal(mean, sd) which
  * uses default bounds mean +/- 3*sd.
+ * <p>
+ * Samples are drawn by inversion: one uniform is mapped into [&Phi;(a), &Phi;(b)] and through the
+ * inverse normal CDF, where a and b are the standardised bounds. Every draw costs one uniform and
+ * a fixed amount of arithmetic however narrow the interval is or however far it lies in a tail;
+ * there is no rejection loop. Intervals entirely in the upper tail are mirrored to the lower one,
+ * where &Phi; keeps its relative precision. Beyond 37 standard deviations, where &Phi; underflows,
+ * the normal tail is inverted through its Rayleigh approximation (Chopin 2011).
+ * </p>
+ * <p>
+ * Like the other generators the uniforms come from the common infrastructure: the MLCG of
+ * {@link RandomGenerator}, seeded by the <code>SeedGenerator</code> or explicitly, or a given
+ * {@link ContinuousGenerator} such as a {@link SplittableSource} stream.
+ * </p>
  */
-public class TruncatedNormal implements ContinuousGenerator {
+public class TruncatedNormal extends Generator implements ContinuousGenerator {
+    private static final double FAR_TAIL = 37.0;
+
     private final double mean;
     private final double sd;
     private final double min;
     private final double max;
-    private final int maxAttempts;
-    private Random rng;
-    private long seed;
+    // standardised bounds, mirrored to the lower tail if the interval lies above the mean
+    private final boolean mirrored;
+    private final double lower;
+    private final double upper;
+    private final double cdfLower;
+    private final double cdfWidth;
 
     // Convenience constructor used in MyEngine: new TruncatedNormal(10, 6)
     public TruncatedNormal(double mean, double sd) {
-        this(mean, sd, mean - 3.0 * sd, mean + 3.0 * sd, 1000, System.nanoTime());
+        this(mean, sd, mean - 3.0 * sd, mean + 3.0 * sd);
+    }
+
+    // Reproducible variant of the convenience constructor
+    public TruncatedNormal(double mean, double sd, long seed) {
+        this(mean, sd, mean - 3.0 * sd, mean + 3.0 * sd, seed);
+    }
+
+    // Variant of the convenience constructor with a given uniform source, used by this generator only
+    public TruncatedNormal(double mean, double sd, ContinuousGenerator source) {
+        this(mean, sd, mean - 3.0 * sd, mean + 3.0 * sd, source);
     }
 
     public TruncatedNormal(double mean, double sd, double min, double max) {
-        this(mean, sd, min, max, 1000, System.nanoTime());
+        this(mean, sd, min, max, new RandomGenerator());
+    }
+
+    public TruncatedNormal(double mean, double sd, double min, double max, long seed) {
+        this(mean, sd, min, max, new RandomGenerator(seed));
     }
 
+    /**
+     * @deprecated sampling no longer retries, so <code>maxAttempts</code> is ignored; use
+     *             {@link #TruncatedNormal(double, double, double, double, long)}
+     */
+    @Deprecated
     public TruncatedNormal(double mean, double sd, double min, double max, int maxAttempts, long seed) {
+        this(mean, sd, min, max, seed);
+        if (maxAttempts <= 0) throw new IllegalArgumentException("maxAttempts must be > 0");
+    }
+
+    public TruncatedNormal(double mean, double sd, double min, double max, ContinuousGenerator source) {
+        super(source);
         if (sd <= 0) throw new IllegalArgumentException("sd must be > 0");
         if (min >= max) throw new IllegalArgumentException("min must be < max");
-        if (maxAttempts <= 0) throw new IllegalArgumentException("maxAttempts must be > 0");
         this.mean = mean;
         this.sd = sd;
         this.min = min;
         this.max = max;
-        this.maxAttempts = maxAttempts;
-        setSeed(seed);
+        double a = (min - mean) / sd;
+        double b = (max - mean) / sd;
+        mirrored = a > 0;
+        lower = mirrored ? -b : a;
+        upper = mirrored ? -a : b;
+        cdfLower = NormalCdf.cdf(lower);
+        cdfWidth = NormalCdf.cdf(upper) - cdfLower;
     }
 
     @Override
     public double sample() {
-        for (int i = 0; i < maxAttempts; i++) {
-            double v = mean + sd * rng.nextGaussian();
-            if (v >= min && v <= max) return v;
-        }
-        // fallback: clamp to nearest bound
-        if (mean < min) return min;
-        if (mean > max) return max;
-        return Math.min(Math.max(mean, min), max);
+        return toBounds(standard(distrib.source.sample()));
     }
 
     @Override
-    public void setSeed(long seed) {
-        this.seed = seed;
-        this.rng = new Random(seed);
+    public void sample(double[] out, int off, int len) {
+        distrib.source.sample(out, off, len);
+        for (int i = off; i < off + len; i++) out[i] = toBounds(standard(out[i]));
     }
 
-    @Override
-    public long getSeed() {
-        return seed;
+    /** Inverse CDF of the standardised (and possibly mirrored) truncated distribution. */
+    private double standard(double u) {
+        if (upper < -FAR_TAIL || cdfWidth <= 0.0) {
+            // far tail: invert the Rayleigh tail exp(-(x^2 - upper^2)/2) on [lower, upper]
+            double span = 0.5 * (lower * lower - upper * upper);
+            return -Math.sqrt(upper * upper - 2.0 * Math.log1p(-u * -Math.expm1(-span)));
+        }
+        double x = NormalCdf.inverse(cdfLower + u * cdfWidth);
+        return Math.min(Math.max(x, lower), upper);
     }
 
-    @Override
-    public void reseed() {
-        setSeed(System.nanoTime());
+    private double toBounds(double x) {
+        double v = mean + sd * (mirrored ? -x : x);
+        return Math.min(Math.max(v, min), max);
     }
-}
\ No newline at end of file
+}
@@ -28,6 +28,16 @@ public class Uniform extends Generator implements ContinuousGenerator {
         set(min, max);
     }
 
+    /**
+     * The constructor with which the uniform source of the generator is given,
+     * e.g. a stream split from a {@link SplittableSource}
+     * @param source The uniform source, used by this generator only
+     */
+    public Uniform(double min, double max, ContinuousGenerator source) {
+        super(source);
+        set(min, max);
+    }
+
     private void set(double min, double max) {
         if (max<=min)
             throw new ParameterException("Uniform: The maximum must be greater than the minimum.");
@@ -42,4 +52,11 @@ public class Uniform extends Generator implements ContinuousGenerator {
     public double sample() { 
          return distrib.uniform(min, max);
     }
+
+    /**
+     * Bulk generation.
+     */
+    public void sample(double[] out, int off, int len) {
+        distrib.uniform(min, max, out, off, len);
+    }
 }
@@ -0,0 +1,94 @@
+package eduni.distributions;
+
+/**
+ * Ziggurat samplers for the standard normal and the standard exponential distribution
+ * (Marsaglia &amp; Tsang 2000, in the floating point form of Doornik 2005).
+ * <p>
+ * The density is covered by layers of equal area. A sample picks a layer and a point in it with
+ * two uniforms; in about 99&nbsp;% of the cases the point lies inside the density and is returned
+ * after one comparison. Only the thin wedges at the layer edges and the tail need
+ * <code>exp</code>/<code>log</code>, so the expected cost is a small constant.
+ * </p>
+ */
+final class Ziggurat {
+    private Ziggurat() {}
+
+    // normal: 128 layers of the unnormalised density exp(-x^2/2)
+    private static final int NORMAL_LAYERS = 128;
+    private static final double NORMAL_R = 3.442619855899;
+    private static final double NORMAL_V = 9.91256303526217e-3;
+    private static final double[] NORMAL_X = new double[NORMAL_LAYERS + 1];
+    private static final double[] NORMAL_RATIO = new double[NORMAL_LAYERS];
+
+    // exponential: 256 layers of exp(-x)
+    private static final int EXP_LAYERS = 256;
+    private static final double EXP_R = 7.69711747013104972;
+    private static final double EXP_V = 3.949659822581572e-3;
+    private static final double[] EXP_X = new double[EXP_LAYERS + 1];
+    private static final double[] EXP_RATIO = new double[EXP_LAYERS];
+
+    static {
+	// X[0] is the width of the base layer (including the tail), X[1] = R, X[layers] = 0
+	double f = Math.exp(-0.5 * NORMAL_R * NORMAL_R);
+	NORMAL_X[0] = NORMAL_V / f;
+	NORMAL_X[1] = NORMAL_R;
+	for (int i = 2; i < NORMAL_LAYERS; i++) {
+	    NORMAL_X[i] = Math.sqrt(-2 * Math.log(NORMAL_V / NORMAL_X[i - 1] + f));
+	    f = Math.exp(-0.5 * NORMAL_X[i] * NORMAL_X[i]);
+	}
+	for (int i = 0; i < NORMAL_LAYERS; i++) NORMAL_RATIO[i] = NORMAL_X[i + 1] / NORMAL_X[i];
+
+	f = Math.exp(-EXP_R);
+	EXP_X[0] = EXP_V / f;
+	EXP_X[1] = EXP_R;
+	for (int i = 2; i < EXP_LAYERS; i++) {
+	    EXP_X[i] = -Math.log(EXP_V / EXP_X[i - 1] + f);
+	    f = Math.exp(-EXP_X[i]);
+	}
+	for (int i = 0; i < EXP_LAYERS; i++) EXP_RATIO[i] = EXP_X[i + 1] / EXP_X[i];
+    }
+
+    /**
+     * @param source uniform source in (0,1)
+     * @return a standard normal variate
+     */
+    static double normal(ContinuousGenerator source) {
+	for (;;) {
+	    double u = 2 * source.sample() - 1;
+	    int i = (int) (source.sample() * NORMAL_LAYERS);
+	    if (Math.abs(u) < NORMAL_RATIO[i]) return u * NORMAL_X[i];  // inside the rectangle
+	    if (i == 0) return normalTail(source, u < 0);
+	    double x = u * NORMAL_X[i];                                   // in the wedge?
+	    double f0 = Math.exp(-0.5 * (NORMAL_X[i] * NORMAL_X[i] - x * x));
+	    double f1 = Math.exp(-0.5 * (NORMAL_X[i + 1] * NORMAL_X[i + 1] - x * x));
+	    if (f1 + source.sample() * (f0 - f1) < 1.0) return x;
+	}
+    }
+
+    /** Marsaglia's tail method for |x| &gt; R. */
+    private static double normalTail(ContinuousGenerator source, boolean negative) {
+	double x, y;
+	do {
+	    x = Math.log(source.sample()) / NORMAL_R;
+	    y = Math.log(source.sample());
+	} while (-2 * y < x * x);
+	return negative ? x - NORMAL_R : NORMAL_R - x;
+    }
+
+    /**
+     * @param source uniform source in (0,1)
+     * @return a standard exponential variate (mean 1)
+     */
+    static double exponential(ContinuousGenerator source) {
+	for (;;) {
+	    double u = source.sample();
+	    int i = (int) (source.sample() * EXP_LAYERS);
+	    if (u < EXP_RATIO[i]) return u * EXP_X[i];                 // inside the rectangle
+	    if (i == 0) return EXP_R - Math.log(source.sample());       // tail: memoryless
+	    double x = u * EXP_X[i];                                     // in the wedge?
+	    double f0 = Math.exp(x - EXP_X[i]);
+	    double f1 = Math.exp(x - EXP_X[i + 1]);
+	    if (f1 + source.sample() * (f0 - f1) < 1.0) return x;
+	}
+    }
+}
@@ -6,17 +6,17 @@ public class ArrivalProcess {
 	private ContinuousGenerator generator;
 	private EventList eventList;
 	private EventType type;
+	private SimulationContext context;
 
-	public ArrivalProcess(ContinuousGenerator g, EventList tl, EventType type) {
+	public ArrivalProcess(ContinuousGenerator g, EventList tl, EventType type, SimulationContext context) {
 		this.generator = g;
 		this.eventList = tl;
 		this.type = type;
+		this.context = context;
 	}
 
 	public void generateNext() {
-		Event t = new Event(type, Clock.getInstance().getTime() + generator.sample());
-		eventList.add(t);
-
+		eventList.add(type, context.getTime() + generator.sample());
 	}
 
 }
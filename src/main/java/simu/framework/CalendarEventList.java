@@ -0,0 +1,293 @@
+package simu.framework;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Calendar queue (R. Brown, 1988) implementation of the pending event set.
+ * <p>
+ * Events are kept in parallel primitive arrays (time, event type ordinal, next-slot link) instead
+ * of {@link Event} objects. Each bucket is a sorted singly linked list of slots and covers a time
+ * interval of {@code width}; a bucket index is the absolute interval number modulo the bucket
+ * count. Freed slots are recycled, so scheduling and removing events allocates nothing once the
+ * arrays have grown to the working size. Enqueue and dequeue are O(1) on average; the bucket count
+ * and width are re-estimated when the number of pending events doubles or halves.
+ * </p>
+ * <p>Events with equal times are returned in the order they were added.</p>
+ * <p><b>Note:</b> {@link #remove()} returns a shared {@link Event} instance that is only valid until
+ * the next call to {@code remove()}. The engine reads its type immediately, which is all that is
+ * needed.</p>
+ */
+public class CalendarEventList extends EventList {
+	private static final int MIN_BUCKETS = 4;
+	private static final int WIDTH_SAMPLE = 25;
+	private static final int NIL = -1;
+
+	private final IEventType[] types;		// event type ordinal -> event type
+	private final Event removed = new Event(null, 0);
+
+	// slot storage
+	private double[] times;
+	private int[] typeOrdinals;
+	private int[] next;
+	private int freeSlot = NIL;
+	private int slotsUsed = 0;
+
+	// calendar
+	private int[] buckets;					// head slot of every bucket
+	private int bucketMask;
+	private double width = 1.0;
+	private double inverseWidth = 1.0;		// multiplied instead of dividing by width on every lookup
+	private long currentBucket = 0;			// absolute interval number of the current position
+	private int size = 0;
+
+	// scratch space for width estimation
+	private final double[] sampleTimes = new double[WIDTH_SAMPLE];
+	private final int[] sampleTypes = new int[WIDTH_SAMPLE];
+
+	/**
+	 * @param types all event types that can be scheduled, indexed by their ordinal
+	 * (e.g. {@code EventType.values()})
+	 */
+	public CalendarEventList(IEventType[] types) {
+		this(types, 64);
+	}
+
+	/**
+	 * @param types all event types that can be scheduled, indexed by their ordinal
+	 * @param initialCapacity number of pending events the slot arrays are sized for up front
+	 */
+	public CalendarEventList(IEventType[] types, int initialCapacity) {
+		if (types == null || types.length == 0) {
+			throw new IllegalArgumentException("types must be non-empty");
+		}
+		this.types = types.clone();
+		int capacity = Math.max(initialCapacity, MIN_BUCKETS);
+		times = new double[capacity];
+		typeOrdinals = new int[capacity];
+		next = new int[capacity];
+		buckets = new int[MIN_BUCKETS];
+		Arrays.fill(buckets, NIL);
+		bucketMask = MIN_BUCKETS - 1;
+	}
+
+	@Override
+	public void add(Event t) {
+		add(t.getType(), t.getTime());
+	}
+
+	@Override
+	public void add(IEventType type, double time) {
+		insert(ordinalOf(type), time);
+		size++;
+		if (size > 2 * buckets.length) {
+			resize(buckets.length * 2);
+		}
+	}
+
+	@Override
+	public Event remove() {
+		int bucket = findNext();
+		int slot = buckets[bucket];
+		removed.setType(types[typeOrdinals[slot]]);
+		removed.setTime(times[slot]);
+		unlinkHead(bucket);
+		size--;
+		if (size < buckets.length / 2 && buckets.length > MIN_BUCKETS) {
+			resize(buckets.length / 2);
+		}
+		return removed;
+	}
+
+	@Override
+	public double getNextTime() {
+		return times[buckets[findNext()]];
+	}
+
+	/**
+	 * @return number of pending events
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return {@code true} if no events are pending
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	private int ordinalOf(IEventType type) {
+		if (type instanceof Enum<?> e) {
+			int ordinal = e.ordinal();
+			if (ordinal < types.length && types[ordinal] == type) {
+				return ordinal;
+			}
+		}
+		for (int i = 0; i < types.length; i++) {
+			if (types[i] == type) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Unknown event type " + type);
+	}
+
+	private long bucketNumber(double time) {
+		return (long) Math.floor(time * inverseWidth);
+	}
+
+	/**
+	 * Stores a new event in a free slot and links it after all events with an equal or smaller time.
+	 */
+	private void insert(int typeOrdinal, double time) {
+		int slot = allocateSlot();
+		times[slot] = time;
+		typeOrdinals[slot] = typeOrdinal;
+		link(slot, false);
+	}
+
+	/**
+	 * Links a filled slot into its bucket.
+	 * @param beforeEqual {@code true} to place it before events with an equal time instead of after them
+	 */
+	private void link(int slot, boolean beforeEqual) {
+		double time = times[slot];
+		long number = bucketNumber(time);
+		if (size == 0 || number < currentBucket) {
+			currentBucket = number;		// nothing can be pending before this event
+		}
+		int bucket = (int) (number & bucketMask);
+		int prev = NIL;
+		int cur = buckets[bucket];
+		while (cur != NIL && (times[cur] < time || (!beforeEqual && times[cur] == time))) {
+			prev = cur;
+			cur = next[cur];
+		}
+		next[slot] = cur;
+		if (prev == NIL) {
+			buckets[bucket] = slot;
+		} else {
+			next[prev] = slot;
+		}
+	}
+
+	/**
+	 * Advances the current position to the bucket holding the earliest event.
+	 * @return index of that bucket; its head slot is the next event
+	 */
+	private int findNext() {
+		if (size == 0) {
+			throw new NoSuchElementException("Event list is empty");
+		}
+		// one pass over the calendar year starting from the current position
+		for (int n = 0; n < buckets.length; n++) {
+			int bucket = (int) (currentBucket & bucketMask);
+			int head = buckets[bucket];
+			if (head != NIL && bucketNumber(times[head]) <= currentBucket) {
+				return bucket;
+			}
+			currentBucket++;
+		}
+		// the next event is more than a year ahead: search the bucket heads directly
+		int best = NIL;
+		for (int bucket = 0; bucket < buckets.length; bucket++) {
+			int head = buckets[bucket];
+			if (head != NIL && (best == NIL || times[head] < times[buckets[best]])) {
+				best = bucket;
+			}
+		}
+		currentBucket = bucketNumber(times[buckets[best]]);
+		return best;
+	}
+
+	private void unlinkHead(int bucket) {
+		int slot = buckets[bucket];
+		buckets[bucket] = next[slot];
+		next[slot] = freeSlot;
+		freeSlot = slot;
+	}
+
+	private int allocateSlot() {
+		if (freeSlot != NIL) {
+			int slot = freeSlot;
+			freeSlot = next[slot];
+			return slot;
+		}
+		if (slotsUsed == times.length) {
+			int capacity = times.length * 2;
+			times = Arrays.copyOf(times, capacity);
+			typeOrdinals = Arrays.copyOf(typeOrdinals, capacity);
+			next = Arrays.copyOf(next, capacity);
+		}
+		return slotsUsed++;
+	}
+
+	/**
+	 * Rebuilds the calendar with a new bucket count and a width estimated from the earliest events.
+	 */
+	private void resize(int bucketCount) {
+		double newWidth = estimateWidth();
+		int[] oldBuckets = buckets;
+
+		buckets = new int[bucketCount];
+		Arrays.fill(buckets, NIL);
+		bucketMask = bucketCount - 1;
+		width = newWidth;
+		inverseWidth = 1.0 / newWidth;
+
+		int pending = size;
+		size = 0;
+		// old buckets keep equal times in insertion order, so re-inserting them in list order keeps FIFO ties
+		for (int head : oldBuckets) {
+			int slot = head;
+			while (slot != NIL) {
+				int following = next[slot];
+				link(slot, false);
+				size++;
+				slot = following;
+			}
+		}
+		size = pending;
+	}
+
+	/**
+	 * Brown's width heuristic: three times the average separation of the earliest events, ignoring
+	 * separations more than twice the first average. The sampled events are removed and put back
+	 * in front of any remaining events with the same time, which keeps FIFO order for ties.
+	 */
+	private double estimateWidth() {
+		int count = Math.min(size, WIDTH_SAMPLE);
+		if (count < 2) {
+			return width;
+		}
+		for (int i = 0; i < count; i++) {
+			int bucket = findNext();
+			int slot = buckets[bucket];
+			sampleTimes[i] = times[slot];
+			sampleTypes[i] = typeOrdinals[slot];
+			unlinkHead(bucket);
+			size--;
+		}
+		for (int i = count - 1; i >= 0; i--) {
+			int slot = allocateSlot();
+			times[slot] = sampleTimes[i];
+			typeOrdinals[slot] = sampleTypes[i];
+			link(slot, true);
+			size++;
+		}
+
+		double average = (sampleTimes[count - 1] - sampleTimes[0]) / (count - 1);
+		double sum = 0;
+		int gaps = 0;
+		for (int i = 1; i < count; i++) {
+			double gap = sampleTimes[i] - sampleTimes[i - 1];
+			if (gap <= 2 * average) {
+				sum += gap;
+				gaps++;
+			}
+		}
+		double separation = gaps > 0 ? sum / gaps : average;
+		return separation > 0 ? 3 * separation : width;
+	}
+}
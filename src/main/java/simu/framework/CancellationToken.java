@@ -0,0 +1,25 @@
+package simu.framework;
+
+/**
+ * Cooperative cancellation flag checked by the engine's event loop.
+ * <p>
+ * Cancelling only sets the flag; the engine notices it before its next event, ends the run
+ * without reporting results and lets its thread exit. One token may be shared by several
+ * engines, e.g. all replications of a batch, to stop them together. Safe to use from any thread.
+ * </p>
+ */
+public class CancellationToken {
+	private volatile boolean cancelled;
+
+	/** Requests cancellation; cannot be undone. */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * @return whether cancellation was requested
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+}
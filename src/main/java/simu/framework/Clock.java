@@ -1,20 +1,16 @@
 package simu.framework;
 
+/**
+ * Simulation clock. Every engine owns its own instance, so several simulations can run in the
+ * same JVM without sharing time.
+ */
 public class Clock {
 	private double time;
-	private static Clock instance;
 	
-	private Clock(){
+	public Clock(){
 		time = 0;
 	}
 	
-	public static Clock getInstance(){
-		if (instance == null){
-			instance = new Clock();
-		}
-		return instance;
-	}
-	
 	public void setTime(double time){
 		this.time = time;
 	}
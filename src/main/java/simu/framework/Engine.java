@@ -6,16 +6,41 @@ import simu.model.ServicePoint;
 public abstract class Engine extends Thread implements IEngine {  // NEW DEFINITIONS
 	private double simulationTime = 0;	// time when the simulation will be stopped
 	private long delay = 0;
-	private Clock clock;				// in order to simplify the code (clock.getClock() instead Clock.getInstance().getClock())
+	private final Pacer pacer = new Pacer();
+	private volatile boolean paced;		// pace against the wall clock instead of a fixed delay
+	private final RunControl control = new RunControl();
+	private volatile CancellationToken cancellation = new CancellationToken();
+	private volatile RunOutcome outcome = RunOutcome.RUNNING;
+	private long eventCount = 0;		// B-events processed so far
+	protected SimulationContext context;	// clock, random streams and ids of this simulation only
+	protected Clock clock;				// in order to simplify the code (clock.getTime() instead of context.getClock().getTime())
 	
 	protected EventList eventList;
 	protected ServicePoint[] servicePoints;
 	protected IControllerMtoV controller; // NEW
 
 	public Engine(IControllerMtoV controller) {	// NEW
-		this.controller = controller;  			// NEW
-		clock = Clock.getInstance();
-		eventList = new EventList();
+		this(controller, new EventList());
+	}
+
+	/**
+	 * @param controller controller receiving the visualisation callbacks
+	 * @param eventList pending event set to use, e.g. a {@link CalendarEventList} for long runs
+	 */
+	public Engine(IControllerMtoV controller, EventList eventList) {
+		this(controller, eventList, new SimulationContext());
+	}
+
+	/**
+	 * @param controller controller receiving the visualisation callbacks
+	 * @param eventList pending event set to use
+	 * @param context per-simulation state owned by this engine
+	 */
+	public Engine(IControllerMtoV controller, EventList eventList, SimulationContext context) {
+		this.controller = controller;
+		this.context = context;
+		clock = context.getClock();
+		this.eventList = eventList;
 		/* Service Points are created in simu.model-package's class who is inheriting the Engine class */
 	}
 
@@ -33,25 +58,141 @@ public abstract class Engine extends Thread implements IEngine {  // NEW DEFINIT
 	public long getDelay() {
 		return delay;
 	}
+
+	/**
+	 * Paces the simulation against the wall clock instead of sleeping a fixed delay between event
+	 * batches. May be called while the simulation runs; the new speed applies at once.
+	 * @param millisPerUnit wall-clock milliseconds per unit of simulated time, 0 for unlimited speed
+	 * @see Pacer
+	 */
+	@Override
+	public void setTimeScale(double millisPerUnit) {
+		pacer.setScale(millisPerUnit);
+		paced = true;
+	}
+
+	@Override
+	public double getTimeScale() {
+		return pacer.getScale();
+	}
+
+	@Override
+	public void pause() {
+		control.pause();
+	}
+
+	@Override
+	public void unpause() {
+		control.resume();
+	}
+
+	@Override
+	public void step() {
+		control.step();
+	}
+
+	@Override
+	public boolean isPaused() {
+		return control.isPaused();
+	}
+
+	/**
+	 * Replaces the cancellation token, e.g. with one shared by several engines. Set before the run.
+	 * @param cancellation token checked before every event
+	 */
+	public void setCancellationToken(CancellationToken cancellation) {
+		this.cancellation = cancellation;
+	}
+
+	/**
+	 * @return the token checked before every event
+	 */
+	public CancellationToken getCancellationToken() {
+		return cancellation;
+	}
+
+	/**
+	 * Cancels the run: the engine stops before its next event, also when it is paused or waiting
+	 * for the wall clock, skips {@link #results()} and {@link #run()} returns. This works on
+	 * whichever thread runs the engine; a fixed {@link #setDelay(long) delay} in progress is
+	 * finished first.
+	 */
+	@Override
+	public void cancel() {
+		cancellation.cancel();
+		control.cancel();	// wake the thread running the simulation, which need not be this one
+		pacer.cancel();
+	}
+
+	@Override
+	public RunOutcome getOutcome() {
+		return outcome;
+	}
 	
+	/**
+	 * @return the clock of this simulation
+	 */
+	public Clock getClock() {
+		return clock;
+	}
+
+	/**
+	 * @return the context of this simulation
+	 */
+	public SimulationContext getContext() {
+		return context;
+	}
+
+	/**
+	 * @return number of B-events processed so far
+	 */
+	public long getEventCount() {
+		return eventCount;
+	}
+
 	@Override
 	public void run() {
 		initialization(); // creating, e.g., the first event
 
 		while (simulate()){
-			delay(); // NEW
+			if (paced) {
+				pacer.awaitSimTime(currentTime());
+			} else {
+				delay(); // NEW
+			}
 			clock.setTime(currentTime());
-			runBEvents();
+			if (!runBEvents()) {
+				outcome = RunOutcome.ABORTED;
+				aborted();
+				return;
+			}
 			tryCEvents();
 		}
 
+		outcome = RunOutcome.COMPLETED;
 		results();
 	}
 	
-	private void runBEvents() {
+	/**
+	 * @return {@code false} if the run was cancelled
+	 */
+	private boolean runBEvents() {
 		while (eventList.getNextTime() == clock.getTime()){
+			if (control.checkpoint()) {
+				pacer.reanchor();	// the pause is not time to catch up
+			}
+			if (cancelled()) {
+				return false;
+			}
 			runEvent(eventList.remove());
+			eventCount++;
 		}
+		return true;
+	}
+
+	private boolean cancelled() {
+		// an interrupt, e.g. from an executor shutting down, counts as cancellation as well
+		return cancellation.isCancelled() || Thread.currentThread().isInterrupted();
 	}
 
     protected void tryCEvents() {    // define protected, if you want to overwrite
@@ -63,19 +204,28 @@ public abstract class Engine extends Thread implements IEngine {  // NEW DEFINIT
 	}
 	
 	private boolean simulate() {
-		Trace.out(Trace.Level.INFO, "Time is: " + clock.getTime());
+		Trace.out(Trace.Level.INFO, () -> "Time is: " + clock.getTime());
 		return clock.getTime() < simulationTime;
 	}
 
 	private void delay() { // NEW
-		Trace.out(Trace.Level.INFO, "Delay " + delay);
+		if (delay <= 0) {
+			return;		// headless/batch runs: no sleeping between event batches
+		}
+		Trace.out(Trace.Level.INFO, () -> "Delay " + delay);
 		try {
 			sleep(delay);
 		} catch (InterruptedException e) {
-			e.printStackTrace();
+			Thread.currentThread().interrupt();	// the event loop ends the run
 		}
 	}
 
+	/**
+	 * Called instead of {@link #results()} when the run was cancelled. Does nothing by default.
+	 */
+	protected void aborted() {
+	}
+
 	protected abstract void initialization(); 	// Defined in simu.model-package's class who is inheriting the Engine class
 	protected abstract void runEvent(Event t);	// Defined in simu.model-package's class who is inheriting the Engine class
 	protected abstract void results(); 			// Defined in simu.model-package's class who is inheriting the Engine class
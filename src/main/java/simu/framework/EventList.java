@@ -2,6 +2,12 @@ package simu.framework;
 
 import java.util.PriorityQueue;
 
+/**
+ * Pending event set of the simulation, ordered by event time.
+ * <p>This default implementation is a binary heap of {@link Event} objects. Engines that schedule
+ * a lot of events can use {@link CalendarEventList} instead; both share the same
+ * {@code add/remove/getNextTime} contract.</p>
+ */
 public class EventList {
 	private PriorityQueue<Event> lista = new PriorityQueue<Event>();
 	
@@ -15,6 +21,16 @@ public class EventList {
 	public void add(Event t){
 		lista.add(t);
 	}
+
+	/**
+	 * Schedules an event of the given type at the given time. Implementations that do not store
+	 * {@link Event} objects override this to avoid the allocation.
+	 * @param type event type
+	 * @param time simulation time of the event
+	 */
+	public void add(IEventType type, double time){
+		add(new Event(type, time));
+	}
 	
 	public double getNextTime(){
 		return lista.peek().getTime();
@@ -5,4 +5,45 @@ public interface IEngine { // NEW
 	public void setSimulationTime(double time);
 	public void setDelay(long time);
 	public long getDelay();
+
+	/**
+	 * Paces the simulation against the wall clock, replacing the fixed delay.
+	 * @param millisPerUnit wall-clock milliseconds per unit of simulated time, 0 for unlimited speed
+	 */
+	public void setTimeScale(double millisPerUnit);
+
+	/**
+	 * @return wall-clock milliseconds per unit of simulated time, 0 for unlimited speed
+	 */
+	public double getTimeScale();
+
+	/**
+	 * Pauses the simulation before its next event. A paused engine thread is parked and uses no CPU.
+	 */
+	public void pause();
+
+	/**
+	 * Resumes a paused simulation. Not called resume, which {@link Thread} already defines.
+	 */
+	public void unpause();
+
+	/**
+	 * Pauses the simulation after one more event.
+	 */
+	public void step();
+
+	/**
+	 * @return whether the simulation is paused or pausing
+	 */
+	public boolean isPaused();
+
+	/**
+	 * Stops the simulation before its next event without reporting results; the run ends.
+	 */
+	public void cancel();
+
+	/**
+	 * @return how the run ended, {@link RunOutcome#RUNNING} until it has
+	 */
+	public RunOutcome getOutcome();
 }
@@ -0,0 +1,146 @@
+package simu.framework;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces a simulation against the wall clock with a fixed ratio of wall time to simulated time.
+ * <p>
+ * Before the events at simulated time t are run, the engine calls {@link #awaitSimTime(double)}.
+ * The pacer computes the monotonic ({@link System#nanoTime()}) deadline at which t is due, relative
+ * to an anchor point, and parks the thread until then. A burst of events close together in
+ * simulated time therefore waits only for the simulated time that actually passes, and a long gap
+ * gives a proportionally long wait, so the animation moves at an even, proportional speed.
+ * </p>
+ * <p>
+ * When the engine falls behind (slow events, a busy UI) it does not wait until it is back on
+ * schedule: it catches up by running events without parking. If it is more than the maximum lag
+ * behind, e.g. after the machine was suspended, it skips instead: the schedule is moved to now,
+ * so the simulation does not race through the backlog. A scale of 0 means unlimited speed. A new
+ * scale takes effect at once, also during a wait, from the current simulated time on.
+ * </p>
+ * <p>
+ * {@link #awaitSimTime(double)} is called by the engine thread only; {@link #setScale(double)} may
+ * be called from any thread.
+ * </p>
+ */
+public class Pacer {
+	/** Default lag behind the schedule beyond which the pacer skips instead of catching up. */
+	public static final long DEFAULT_MAX_LAG_NANOS = 250_000_000L;
+
+	private final long maxLagNanos;
+	private volatile double nanosPerUnit;
+	private volatile boolean changed;
+	private volatile Thread waiter;
+	private volatile boolean cancelled;
+
+	// engine thread only
+	private boolean anchored;
+	private long anchorWall;
+	private double anchorSim;
+	private double lastSim;
+	private double scale;
+	private volatile long skips;	// written by the engine thread only, read from any thread
+
+	/**
+	 * Creates a pacer with unlimited speed and the default maximum lag.
+	 */
+	public Pacer() {
+		this(DEFAULT_MAX_LAG_NANOS);
+	}
+
+	/**
+	 * @param maxLagNanos lag behind the schedule beyond which the pacer skips instead of catching up
+	 */
+	public Pacer(long maxLagNanos) {
+		if (maxLagNanos < 0) {
+			throw new IllegalArgumentException("maxLagNanos must be >= 0");
+		}
+		this.maxLagNanos = maxLagNanos;
+	}
+
+	/**
+	 * Sets the speed.
+	 * @param millisPerUnit wall-clock milliseconds per unit of simulated time, e.g. 50 for one
+	 *                      simulated minute every 50 ms; 0 for unlimited speed
+	 */
+	public void setScale(double millisPerUnit) {
+		if (!(millisPerUnit >= 0) || Double.isInfinite(millisPerUnit)) {
+			throw new IllegalArgumentException("millisPerUnit must be >= 0 and finite");
+		}
+		nanosPerUnit = millisPerUnit * 1e6;
+		changed = true;
+		Thread t = waiter;
+		if (t != null) {
+			LockSupport.unpark(t);	// apply the new speed to the current wait
+		}
+	}
+
+	/**
+	 * @return wall-clock milliseconds per unit of simulated time, 0 for unlimited speed
+	 */
+	public double getScale() {
+		return nanosPerUnit / 1e6;
+	}
+
+	/**
+	 * Restarts the schedule from the current simulated time at the next wait, e.g. after the
+	 * engine was paused, so the pause is neither caught up nor counted as a skip.
+	 */
+	void reanchor() {
+		changed = true;
+	}
+
+	/**
+	 * Ends the current wait and every later one, e.g. because the run was cancelled.
+	 */
+	void cancel() {
+		cancelled = true;
+		Thread t = waiter;
+		if (t != null) {
+			LockSupport.unpark(t);
+		}
+	}
+
+	/**
+	 * Waits until the given simulated time is due. Returns early if the thread is interrupted,
+	 * leaving the interrupt status set, or if the pacer was cancelled.
+	 * @param simTime simulated time of the next events; not before the previous one
+	 */
+	public void awaitSimTime(double simTime) {
+		waiter = Thread.currentThread();
+		while (true) {
+			long now = System.nanoTime();
+			if (!anchored || changed) {
+				changed = false;
+				scale = nanosPerUnit;
+				anchorSim = lastSim;
+				anchorWall = now;
+				anchored = true;
+			}
+			if (scale <= 0 || cancelled) {
+				break;	// unlimited speed
+			}
+			long remaining = anchorWall + (long) ((simTime - anchorSim) * scale) - now;
+			if (remaining <= 0) {
+				if (-remaining > maxLagNanos) {
+					anchorSim = simTime;	// too far behind: skip rather than race through the backlog
+					anchorWall = now;
+					skips++;
+				}
+				break;
+			}
+			LockSupport.parkNanos(this, remaining);
+			if (Thread.currentThread().isInterrupted()) {
+				break;
+			}
+		}
+		lastSim = simTime;
+	}
+
+	/**
+	 * @return how often the pacer has skipped ahead because it was too far behind
+	 */
+	public long getSkips() {
+		return skips;
+	}
+}
@@ -0,0 +1,88 @@
+package simu.framework;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pause, resume and single-step handshake between a controlling thread and the thread running the
+ * simulation.
+ * <p>
+ * The controlling thread only writes volatile state and unparks the waiting thread. The simulation
+ * calls {@link #checkpoint()} before every event. While it is not paused that is one volatile
+ * read. While it is paused it parks until resumed or given a step, so a paused engine uses no CPU
+ * and a command takes effect before the next event.
+ * </p>
+ * <p>
+ * The thread to wake is the one that last called {@link #checkpoint()}, not the engine's
+ * {@link Thread} object: an engine may also run on the calling thread or in a pool.
+ * </p>
+ */
+class RunControl {
+	private volatile boolean paused;
+	private final AtomicInteger steps = new AtomicInteger();	// events allowed while paused
+	private volatile Thread waiter;		// thread running the simulation
+	private volatile boolean cancelled;
+
+	/** Stops the engine before its next event. */
+	void pause() {
+		paused = true;
+	}
+
+	/** Lets a paused engine continue. */
+	void resume() {
+		paused = false;
+		steps.set(0);
+		wake();
+	}
+
+	/** Pauses the engine and lets it run one more event. */
+	void step() {
+		steps.incrementAndGet();
+		paused = true;
+		wake();
+	}
+
+	/** @return whether the engine is paused or will pause before its next event */
+	boolean isPaused() {
+		return paused;
+	}
+
+	/** Releases a paused engine for good, e.g. because the run was cancelled. */
+	void cancel() {
+		cancelled = true;
+		wake();
+	}
+
+	private void wake() {
+		Thread t = waiter;
+		if (t != null) {
+			LockSupport.unpark(t);
+		}
+	}
+
+	/**
+	 * Called by the thread running the simulation before an event; returns when the event may run.
+	 * Returns early if the thread is interrupted, leaving the interrupt status set, or if the
+	 * control was cancelled.
+	 * @return whether the thread was parked
+	 */
+	boolean checkpoint() {
+		waiter = Thread.currentThread();	// before reading paused, so a resume cannot be missed
+		boolean parked = false;
+		while (paused && !cancelled) {
+			int s = steps.get();
+			if (s > 0) {
+				if (steps.compareAndSet(s, s - 1)) {
+					break;
+				}
+				continue;
+			}
+			LockSupport.park(this);	// spurious wake-ups just go round the loop
+			parked = true;
+			if (Thread.currentThread().isInterrupted()) {
+				break;
+			}
+		}
+		return parked;
+	}
+}
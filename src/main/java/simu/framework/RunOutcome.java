@@ -0,0 +1,13 @@
+package simu.framework;
+
+/**
+ * How a simulation run ended.
+ */
+public enum RunOutcome {
+	/** Not started or still running. */
+	RUNNING,
+	/** Reached the simulation time; results were reported. */
+	COMPLETED,
+	/** Cancelled or interrupted before the simulation time; no results were reported. */
+	ABORTED
+}
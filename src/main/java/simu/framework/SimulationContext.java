@@ -0,0 +1,187 @@
+package simu.framework;
+
+import eduni.distributions.ContinuousGenerator;
+import eduni.distributions.RandomGenerator;
+import eduni.distributions.SamplingMethod;
+import eduni.distributions.SeedGenerator;
+import eduni.distributions.SplittableSource;
+
+import java.util.Random;
+
+/**
+ * Per-simulation state that used to be global: the clock, the source of random number streams
+ * and the identifier counters.
+ * <p>
+ * Every {@link Engine} owns one context and hands it to its service points, arrival processes and
+ * customers. Nothing in here is static, so any number of simulations can run in parallel in one
+ * JVM without interfering, and a context built from a fixed root seed replays the same run.
+ * </p>
+ * <p>
+ * Random streams come either from the legacy 31-bit MLCG, whose streams start at seeds spaced
+ * {@link #SEED_SPACING} apart, or from a {@link SplittableSource}, whose streams are split off in
+ * O(1) and cannot overlap. The MLCG is used unless the context is built from a
+ * {@link SplittableSource}; it replays runs made with earlier versions.
+ * </p>
+ * <p><b>Threading:</b> A context is confined to the thread running its engine.</p>
+ */
+public class SimulationContext {
+	/** Spacing between two seeds drawn from the seed stream. */
+	public static final int SEED_SPACING = 100000;
+
+	private final Clock clock = new Clock();
+	private final SeedGenerator seeds;       // MLCG seed stream, null for a splittable context
+	private final SplittableSource streams;  // splittable root stream, null for an MLCG context
+	private int nextId = 1;
+	private int sampleBlockSize = 0;
+	private SamplingMethod samplingMethod = SamplingMethod.CLASSIC;
+	private boolean commonRandomNumbers = false;
+
+	/**
+	 * Context with a seed stream started from the system timer, so interactive runs differ.
+	 */
+	public SimulationContext() {
+		this(timeSeed());
+	}
+
+	/**
+	 * @param rootSeed root of the seed stream, in 1..2^31-2
+	 */
+	public SimulationContext(long rootSeed) {
+		this(new SeedGenerator(rootSeed, SEED_SPACING));
+	}
+
+	/**
+	 * @param seeds seed stream used exclusively by this context
+	 */
+	public SimulationContext(SeedGenerator seeds) {
+		this.seeds = seeds;
+		this.streams = null;
+	}
+
+	/**
+	 * Context whose random streams are split from the given 64-bit source.
+	 * @param streams root stream used exclusively by this context
+	 */
+	public SimulationContext(SplittableSource streams) {
+		this.seeds = null;
+		this.streams = streams;
+	}
+
+	/**
+	 * @return true if the random streams are split from a {@link SplittableSource}
+	 */
+	public boolean isSplittable() {
+		return streams != null;
+	}
+
+	/**
+	 * A valid MLCG seed (1..2^31-2) derived from the system timer.
+	 */
+	private static long timeSeed() {
+		return 1 + Math.floorMod(System.nanoTime(), 2147483646L);
+	}
+
+	/**
+	 * @return the clock of this simulation
+	 */
+	public Clock getClock() {
+		return clock;
+	}
+
+	/**
+	 * @return current simulation time
+	 */
+	public double getTime() {
+		return clock.getTime();
+	}
+
+	/**
+	 * Draws the seed of a new, independent random stream. For an MLCG context this is a
+	 * well-spaced MLCG seed; for a splittable context it is an arbitrary 64-bit value, so it
+	 * should only seed generators that accept any {@code long}. Prefer {@link #newSource()}.
+	 * @return next seed
+	 */
+	public long nextSeed() {
+		return streams != null ? streams.nextLong() : seeds.sample();
+	}
+
+	/**
+	 * @return a new uniform source for a distribution generator: an MLCG started from the next
+	 *         seed, or a stream split from the splittable root
+	 */
+	public ContinuousGenerator newSource() {
+		return streams != null ? streams.split() : new RandomGenerator(seeds.sample());
+	}
+
+	/**
+	 * @return a new JDK random generator: a {@link Random} seeded from the seed stream, or a
+	 *         stream split from the splittable root
+	 */
+	public java.util.random.RandomGenerator newRandom() {
+		return streams != null ? streams.splitGenerator() : new Random(seeds.sample());
+	}
+
+	/**
+	 * @param sampleBlockSize number of samples the generators of this simulation produce at once
+	 *                        and buffer; 0 (default) draws one sample at a time, as earlier runs did
+	 */
+	public void setSampleBlockSize(int sampleBlockSize) {
+		if (sampleBlockSize < 0) {
+			throw new IllegalArgumentException("sampleBlockSize must be >= 0");
+		}
+		this.sampleBlockSize = sampleBlockSize;
+	}
+
+	/**
+	 * @return number of samples generated at once, 0 if generators sample one at a time
+	 */
+	public int getSampleBlockSize() {
+		return sampleBlockSize;
+	}
+
+	/**
+	 * @param samplingMethod algorithm of the service and arrival time generators of this simulation;
+	 *                       {@link SamplingMethod#CLASSIC} (default) reproduces earlier runs
+	 */
+	public void setSamplingMethod(SamplingMethod samplingMethod) {
+		if (samplingMethod == null) {
+			throw new IllegalArgumentException("samplingMethod must not be null");
+		}
+		this.samplingMethod = samplingMethod;
+	}
+
+	/**
+	 * @return algorithm of the service and arrival time generators
+	 */
+	public SamplingMethod getSamplingMethod() {
+		return samplingMethod;
+	}
+
+	/**
+	 * Common random numbers (CRN) mode, for comparing configurations. Every random input gets a
+	 * dedicated stream that is consumed in the same order whatever the configuration: the
+	 * arrivals, each passenger attribute, and the service times, which are drawn per passenger
+	 * at arrival instead of per service start. Two simulations built from contexts with the same
+	 * root then see the same passengers, and the difference of their results is mostly due to
+	 * the configuration.
+	 * @param commonRandomNumbers true to synchronise the streams, false (default) for the
+	 *                            stream usage of earlier runs
+	 */
+	public void setCommonRandomNumbers(boolean commonRandomNumbers) {
+		this.commonRandomNumbers = commonRandomNumbers;
+	}
+
+	/**
+	 * @return true if the random streams are synchronised for common random numbers
+	 */
+	public boolean isCommonRandomNumbers() {
+		return commonRandomNumbers;
+	}
+
+	/**
+	 * @return next sequential identifier of this simulation (starts from 1)
+	 */
+	public int nextId() {
+		return nextId++;
+	}
+}
@@ -1,15 +1,59 @@
 package simu.framework;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Supplier;
+
+/**
+ * Trace output of the simulator.
+ * <p>
+ * Messages below the trace level are dropped before anything else happens. In hot paths use
+ * {@link #out(Level, Supplier)} or guard with {@link #isEnabled(Level)}, so the message text is
+ * only built when it will be printed. Enabled messages go to the SLF4J logger {@code simu.trace};
+ * logback.xml routes it through an asynchronous appender, so the engine thread hands the message
+ * over and does not wait for the console.
+ * </p>
+ */
 public class Trace {
 	public enum Level { INFO, WAR, ERR }
-	private static Level traceLevel;
+	private static final Logger LOGGER = LoggerFactory.getLogger("simu.trace");
+	private static volatile Level traceLevel;
 	
 	public static void setTraceLevel(Level lvl){
 		traceLevel = lvl;
 	}
+
+	/**
+	 * @param lvl level of a message
+	 * @return true if messages of that level are printed
+	 */
+	public static boolean isEnabled(Level lvl){
+		return lvl.ordinal() >= traceLevel.ordinal();
+	}
+
 	public static void out(Level lvl, String txt){
-		if (lvl.ordinal() >= traceLevel.ordinal()){
-			System.out.println(txt);
+		if (isEnabled(lvl)){
+			write(lvl, txt);
+		}
+	}
+
+	/**
+	 * Like {@link #out(Level, String)}, but the message is only built if the level is enabled.
+	 * @param lvl level of the message
+	 * @param txt builds the message
+	 */
+	public static void out(Level lvl, Supplier<String> txt){
+		if (isEnabled(lvl)){
+			write(lvl, txt.get());
+		}
+	}
+
+	private static void write(Level lvl, String txt){
+		switch (lvl) {
+			case INFO -> LOGGER.info(txt);
+			case WAR -> LOGGER.warn(txt);
+			case ERR -> LOGGER.error(txt);
 		}
 	}
-}
\ No newline at end of file
+}
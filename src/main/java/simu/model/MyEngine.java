@@ -1,17 +1,17 @@
 package simu.model;
 
 import controller.IControllerMtoV;
-import dao.RunDao;
-import dao.RunStatisticsDao;
+import dao.AsyncResultWriter;
 import eduni.distributions.*;
 import simu.model.entity.Run;
 import simu.model.entity.RunStatistics;
 import simu.framework.ArrivalProcess;
-import simu.framework.Clock;
+import simu.framework.CalendarEventList;
 import simu.framework.Engine;
 import simu.framework.Event;
-
-import java.util.Random;
+import simu.framework.EventList;
+import simu.framework.SimulationContext;
+import simu.framework.Trace;
 
 import static simu.model.EventType.*;
 
@@ -20,8 +20,8 @@ import static simu.model.EventType.*;
  * <p>
  * This engine wires together an {@link ArrivalProcess}, a fixed set of {@link ServicePoint}s
  * (one logical station per {@link EventType}), and a UI controller ({@link IControllerMtoV})
- * for visualization callbacks. It also persists the configured line counts and measured
- * queue statistics via {@link RunDao} and {@link RunStatisticsDao} at the end of the run.
+ * for visualization callbacks. At the end of the run it hands the configured line counts and
+ * measured queue statistics to the {@link AsyncResultWriter}, which stores them in the background.
  * </p>
  *
  * <h2>Service point layout (8 entries)</h2>
@@ -56,19 +56,23 @@ public class MyEngine extends Engine {
     private ArrivalProcess arrivalProcess;
     /** All service points (8 stations; see class javadoc for index mapping). */
     private ServicePoint[] servicePoints;
+    /** Live queue lengths of the service points, published for the visualisation. */
+    private final StationLoad stationLoad;
     /** Number of configured service points (always 8 in this model). */
     private final int SERVICE_POINT_COUNT;
     /** Initial line counts per station; saved with the run results. */
     private final int[] initialLineCounts;
+    /** Number of seeds drawn from the context's seed stream per engine (8 stations, arrivals, passengers). */
+    public static final int SEEDS_PER_ENGINE = 10;
     public static final boolean TEXTDEMO = false;
     /** If {@code true} in text demo mode, use fixed inter-arrival times. */
     public static final boolean FIXEDARRIVALTIMES = false;
     /** If {@code true} in text demo mode, use fixed service times (note: field name contains a typo). */
     public static final boolean FXIEDSERVICETIMES = false;
-    /** DAO for persisting per-run queue statistics. */
-    private RunStatisticsDao runStatisticsDao=new RunStatisticsDao();
-    /** DAO for persisting run configuration (line counts). */
-    private RunDao runDao = new RunDao();
+    /** If {@code false}, results are only handed to the controller and never written to the database. */
+    private boolean persistResults = true;
+    /** Creates the passengers of this simulation (id counter, attribute stream and fractions). */
+    private final PassengerGenerator passengerGenerator;
 
     /**
      * Default constructor keeps previous defaults.
@@ -87,7 +91,32 @@ public class MyEngine extends Engine {
      * @throws IllegalArgumentException if {@code lineCounts} is {@code null} or its length is not 8
      */
     public MyEngine(IControllerMtoV controller, int[] lineCounts) {
-        super(controller);
+        this(controller, lineCounts, new EventList());
+    }
+
+    /**
+     * Constructor that also selects the pending event set implementation.
+     * @param controller UI/controller callback interface used for visualization updates
+     * @param lineCounts array of length 8 containing the number of parallel lines per station
+     * @param eventList event list to schedule into; {@link CalendarEventList} avoids per-event allocation
+     * @throws IllegalArgumentException if {@code lineCounts} is {@code null} or its length is not 8
+     */
+    public MyEngine(IControllerMtoV controller, int[] lineCounts, EventList eventList) {
+        this(controller, lineCounts, eventList, new SimulationContext());
+    }
+
+    /**
+     * Constructor that takes every random stream of this simulation from the given context:
+     * one stream per service time generator, one for arrivals and one for passenger attributes
+     * ({@link #SEEDS_PER_ENGINE} in total). A context with a fixed root seed replays the same run.
+     * @param controller UI/controller callback interface used for visualization updates
+     * @param lineCounts array of length 8 containing the number of parallel lines per station
+     * @param eventList event list to schedule into
+     * @param context per-simulation clock, seed stream and id counter
+     * @throws IllegalArgumentException if {@code lineCounts} is {@code null} or its length is not 8
+     */
+    public MyEngine(IControllerMtoV controller, int[] lineCounts, EventList eventList, SimulationContext context) {
+        super(controller, eventList, context);
         if (lineCounts == null || lineCounts.length != 8) {
             throw new IllegalArgumentException("lineCounts must be non-null and length 8");
         }
@@ -96,7 +125,6 @@ public class MyEngine extends Engine {
         servicePoints = new ServicePoint[SERVICE_POINT_COUNT];
 
         if (TEXTDEMO) {
-            Random r = new Random();
 
             ContinuousGenerator arrivalTime = null;
             if (FIXEDARRIVALTIMES) {
@@ -108,7 +136,7 @@ public class MyEngine extends Engine {
                     @Override public void reseed() {}
                 };
             } else
-                arrivalTime = new Negexp(10, Integer.toUnsignedLong(r.nextInt()));
+                arrivalTime = new Negexp(10, context.newSource());
 
             ContinuousGenerator serviceTime = null;
             if (FXIEDSERVICETIMES) {
@@ -119,32 +147,80 @@ public class MyEngine extends Engine {
                     @Override public void reseed() {}
                 };
             } else
-                serviceTime = new Normal(10, 6, Integer.toUnsignedLong(r.nextInt()));
+                serviceTime = new Normal(10, 6, context.newSource());
 
             // use provided line counts
-            servicePoints[0] = new ServicePoint(serviceTime, eventList, EventType.CHECK_IN, initialLineCounts[0]);
-            servicePoints[1] = new ServicePoint(serviceTime, eventList, EventType.LUGGAGE_DROP, initialLineCounts[1]);
-            servicePoints[2] = new ServicePoint(serviceTime, eventList, EventType.LUGGAGE_DROP_PRIORITY, initialLineCounts[2]);
-            servicePoints[3] = new ServicePoint(serviceTime, eventList, EventType.SECURITY, initialLineCounts[3]);
-            servicePoints[4] = new ServicePoint(serviceTime, eventList, EventType.SECURITY_PRIORITY, initialLineCounts[4]);
-            servicePoints[5] = new ServicePoint(serviceTime, eventList, EventType.PASSPORT_CONTROL, initialLineCounts[5]);
-            servicePoints[6] = new ServicePoint(serviceTime, eventList, EventType.PASSPORT_CONTROL_PRIORITY, initialLineCounts[6]);
-            servicePoints[7] = new ServicePoint(serviceTime, eventList, EventType.GATE, initialLineCounts[7]);
-
-            arrivalProcess = new ArrivalProcess(arrivalTime, eventList, ARR1);
+            servicePoints[0] = new ServicePoint(serviceTime, eventList, EventType.CHECK_IN, initialLineCounts[0], context);
+            servicePoints[1] = new ServicePoint(serviceTime, eventList, EventType.LUGGAGE_DROP, initialLineCounts[1], context);
+            servicePoints[2] = new ServicePoint(serviceTime, eventList, EventType.LUGGAGE_DROP_PRIORITY, initialLineCounts[2], context);
+            servicePoints[3] = new ServicePoint(serviceTime, eventList, EventType.SECURITY, initialLineCounts[3], context);
+            servicePoints[4] = new ServicePoint(serviceTime, eventList, EventType.SECURITY_PRIORITY, initialLineCounts[4], context);
+            servicePoints[5] = new ServicePoint(serviceTime, eventList, EventType.PASSPORT_CONTROL, initialLineCounts[5], context);
+            servicePoints[6] = new ServicePoint(serviceTime, eventList, EventType.PASSPORT_CONTROL_PRIORITY, initialLineCounts[6], context);
+            servicePoints[7] = new ServicePoint(serviceTime, eventList, EventType.GATE, initialLineCounts[7], context);
+
+            arrivalProcess = new ArrivalProcess(arrivalTime, eventList, ARR1, context);
         } else {
             // realistic case, use line counts
-            servicePoints[0] = new ServicePoint(new LogNormal(2.3, 0.5), eventList, EventType.CHECK_IN, initialLineCounts[0]);
-            servicePoints[1] = new ServicePoint(new Gamma(2.0, 5.0), eventList, EventType.LUGGAGE_DROP, initialLineCounts[1]);
-            servicePoints[2] = new ServicePoint(new Gamma(2.0, 5.0), eventList, EventType.LUGGAGE_DROP_PRIORITY, initialLineCounts[2]);
-            servicePoints[3] = new ServicePoint(new TruncatedNormal(12, 6), eventList, EventType.SECURITY, initialLineCounts[3]);
-            servicePoints[4] = new ServicePoint(new Normal(8, 4), eventList, EventType.SECURITY_PRIORITY, initialLineCounts[4]);
-            servicePoints[5] = new ServicePoint(new LogNormal(2.1, 0.7), eventList, EventType.PASSPORT_CONTROL, initialLineCounts[5]);
-            servicePoints[6] = new ServicePoint(new LogNormal(2.1, 0.7), eventList, EventType.PASSPORT_CONTROL_PRIORITY, initialLineCounts[6]);
-            servicePoints[7] = new ServicePoint(new Normal(5, 1), eventList, EventType.GATE, initialLineCounts[7]);
-
-            arrivalProcess = new ArrivalProcess(new Negexp(15, 5), eventList, ARR1);
+            servicePoints[0] = new ServicePoint(configured(new LogNormal(2.3, 0.5, context.newSource())), eventList, EventType.CHECK_IN, initialLineCounts[0], context);
+            servicePoints[1] = new ServicePoint(configured(new Gamma(2.0, 5.0, context.newSource())), eventList, EventType.LUGGAGE_DROP, initialLineCounts[1], context);
+            servicePoints[2] = new ServicePoint(configured(new Gamma(2.0, 5.0, context.newSource())), eventList, EventType.LUGGAGE_DROP_PRIORITY, initialLineCounts[2], context);
+            servicePoints[3] = new ServicePoint(configured(new TruncatedNormal(12, 6, context.newSource())), eventList, EventType.SECURITY, initialLineCounts[3], context);
+            servicePoints[4] = new ServicePoint(configured(new Normal(8, 4, context.newSource())), eventList, EventType.SECURITY_PRIORITY, initialLineCounts[4], context);
+            servicePoints[5] = new ServicePoint(configured(new LogNormal(2.1, 0.7, context.newSource())), eventList, EventType.PASSPORT_CONTROL, initialLineCounts[5], context);
+            servicePoints[6] = new ServicePoint(configured(new LogNormal(2.1, 0.7, context.newSource())), eventList, EventType.PASSPORT_CONTROL_PRIORITY, initialLineCounts[6], context);
+            servicePoints[7] = new ServicePoint(configured(new Normal(5, 1, context.newSource())), eventList, EventType.GATE, initialLineCounts[7], context);
+
+            arrivalProcess = new ArrivalProcess(configured(new Negexp(15, context.newSource())), eventList, ARR1, context);
+        }
+        passengerGenerator = new PassengerGenerator(context);
+        passengerGenerator.presampleServiceTimes(servicePoints);
+
+        EventType[] stations = new EventType[servicePoints.length];
+        for (int i = 0; i < servicePoints.length; i++) {
+            stations[i] = servicePoints[i].getServiceEventType();
         }
+        stationLoad = new StationLoad(stations);
+        for (int i = 0; i < servicePoints.length; i++) {
+            servicePoints[i].publishTo(stationLoad, i);
+        }
+    }
+
+    /**
+     * Applies the sampling method of the context and wraps the generator in a
+     * {@link PrefetchGenerator} if the context asks for block sampling.
+     * @param generator service or arrival time generator
+     * @return the generator to use
+     */
+    private <G extends Generator & ContinuousGenerator> ContinuousGenerator configured(G generator) {
+        generator.setSamplingMethod(context.getSamplingMethod());
+        int blockSize = context.getSampleBlockSize();
+        return blockSize > 0 ? new PrefetchGenerator(generator, blockSize) : generator;
+    }
+
+    /**
+     * @return live queue lengths and departures of the service points, readable from any thread,
+     * e.g. for a visualisation that draws aggregates instead of single passengers
+     */
+    public StationLoad getStationLoad() {
+        return stationLoad;
+    }
+
+    /**
+     * @return the passenger generator of this simulation, e.g. for changing the attribute fractions
+     * before the run starts
+     */
+    public PassengerGenerator getPassengerGenerator() {
+        return passengerGenerator;
+    }
+
+    /**
+     * Enables or disables writing the run and its statistics to the database in {@link #results()}.
+     * Headless batch runs without a database use {@code false}.
+     * @param persistResults {@code true} to persist (default), {@code false} to skip the result writer
+     */
+    public void setPersistResults(boolean persistResults) {
+        this.persistResults = persistResults;
     }
 
     /**
@@ -172,7 +248,7 @@ public class MyEngine extends Engine {
         switch ((EventType) t.getType()) {
             case ARR1 -> {
                 // create passenger and route once
-                Passenger p = new Passenger();
+                Passenger p = passengerGenerator.next();
 
                 if (p.isCheckIn()) {
                     // needs check-in first
@@ -285,8 +361,9 @@ public class MyEngine extends Engine {
             case GATE -> {
                 Passenger p = servicePoints[7].removeQueue();
                 if (p == null) break;
-                p.setRemovalTime(Clock.getInstance().getTime());
+                p.setRemovalTime(clock.getTime());
                 //p.reportResults();
+                passengerGenerator.release(p);
             }
         }
     }
@@ -307,16 +384,16 @@ public class MyEngine extends Engine {
     }
 
     /**
-     * Finalization/reporting: persists run configuration and collected queue statistics,
+     * Finalization/reporting: queues the run configuration and collected queue statistics for persistence,
      * triggers result visualization, and prints the simulation end time.
      */
     @Override
     protected void results() {
 
-        System.out.println("=== Simulation results ===");
+        Trace.out(Trace.Level.INFO, "=== Simulation results ===");
         // ... (console printing kept as before)
 
-        // Persist run using provided initial line counts
+        // Run record from the provided initial line counts
         Run run = new Run(
                 initialLineCounts[1], // luggageDrop
                 initialLineCounts[2], // priorityLuggageDrop
@@ -327,7 +404,6 @@ public class MyEngine extends Engine {
                 initialLineCounts[6], // priorityPassportControl
                 initialLineCounts[7]  // gate
         );
-        runDao.persist(run);
 
         // collect stats values
         int checkInMax = servicePoints[0].getMaxLength();
@@ -366,11 +442,23 @@ public class MyEngine extends Engine {
                 gateMax, gateAvg
         );
 
-        runStatisticsDao.persist(runStats);
+        if (persistResults) {
+            // write-behind: the run is stored with its statistics, off the engine thread
+            AsyncResultWriter.getInstance().submit(runStats);
+        }
 
 
         controller.visualiseResults(run, runStats);
 
-        System.out.printf("Simulation ended at %.2f%n", Clock.getInstance().getTime());
+        Trace.out(Trace.Level.INFO, () -> String.format("Simulation ended at %.2f", clock.getTime()));
+    }
+
+    /**
+     * Ends a cancelled run: nothing is persisted or shown, as the statistics of a partial run are
+     * not comparable with those of complete runs.
+     */
+    @Override
+    protected void aborted() {
+        Trace.out(Trace.Level.INFO, () -> String.format("Simulation aborted at %.2f", clock.getTime()));
     }
 }
@@ -1,36 +1,29 @@
 package simu.model;
 
-import simu.framework.Clock;
 import simu.framework.Trace;
 
-import java.util.Random;
-
 /**
  * Domain object representing a single passenger in the simulation.
  * <p>
- * A {@code Passenger} is stamped with its arrival time (from {@link Clock}),
- * assigned a running identifier, and randomly designated with several boolean
- * attributes based on configurable Bernoulli fractions:
- * priority status, whether check-in is required, whether luggage drop is needed,
- * and whether the passenger is an EU citizen.
+ * A {@code Passenger} is stamped with its arrival time, a running identifier and several
+ * boolean attributes: priority status, whether check-in is required, whether luggage drop is
+ * needed, and whether the passenger is an EU citizen. Passengers are created by the
+ * {@link PassengerGenerator} of a simulation, which owns the identifier counter, the random
+ * stream and the attribute fractions.
+ * </p>
+ * <p>
+ * Instances may be recycled: once a passenger has been handed back with
+ * {@link PassengerGenerator#release(Passenger)}, the same object can reappear as a new arrival
+ * with a new id, so references must not be kept after release.
  * </p>
- *
- * <h3>Randomness & fractions</h3>
- * <ul>
- *   <li>Fractions are global (static) and apply to all new passengers.</li>
- *   <li>Values ≤ 0 produce {@code false}, values ≥ 1 produce {@code true}, otherwise
- *       a sample is drawn from a shared {@link Random}.</li>
- *   <li>When a fraction is exactly 0 or 1, outcomes are deterministic.</li>
- * </ul>
  *
  * <h3>Logging</h3>
- * The constructor logs a creation message via {@link Trace}. Ensure the trace
- * level is initialized before constructing instances in tests.
+ * The constructor logs a creation message via {@link Trace}; the text is only built when INFO
+ * tracing is on. Ensure the trace level is initialized before constructing instances in tests.
  *
  * <h3>Thread-safety</h3>
- * This class is <em>not</em> thread-safe due to shared static state
- * (identifier counter and cumulative {@code sum}). If you use it from multiple
- * threads, guard updates externally or confine usage to a single thread.
+ * Instances hold no shared static state, so passengers of different simulations can be
+ * created concurrently on different threads.
  */
 public class Passenger {
     /** Simulation time when the passenger arrived. */
@@ -39,15 +32,9 @@ public class Passenger {
     /** Simulation time when the passenger left the system. */
     private double removalTime;
 
-    /** Sequential identifier assigned at construction. */
+    /** Sequential identifier assigned by the generator. */
     private int id;
 
-    /** Global counter for assigning sequential ids (starts from 1). */
-    private static int i = 1;
-
-    /** Cumulative time spent in the system (sum of removal-arrival over all reported passengers). */
-    private static double sum = 0;
-
     /** Whether the passenger has priority status. */
     private boolean isPriority;
 
@@ -59,103 +46,72 @@ public class Passenger {
 
     /** Whether the passenger is an EU citizen (affects passport control). */
     private boolean euCitizen;
-
-    /** Global fraction for assigning priority status. */
-    private static double priorityFraction = 0.2;
-
-    /** Global fraction for assigning luggage-drop requirement. */
-    private static double luggageFraction = 0.7;
-
-    /** Global fraction for assigning EU citizenship. */
-    private static double euCitizenFraction = 0.9;
-
-    /** Global fraction for assigning check-in requirement. */
-    private static double checkInFraction = 0.8;
-
-    /** Shared PRNG for all Bernoulli decisions. */
-    private static final Random RAND = new Random();
+    /** Service times drawn at arrival, by service completion {@link EventType} ordinal; null if none. */
+    private double[] serviceTimes;
+    /** Whether {@link #serviceTimes} holds the times of the current arrival. */
+    private boolean hasServiceTimes;
 
     /**
-     * Constructs a new passenger, assigns a sequential id, draws attributes
-     * from the configured fractions, and stamps the current arrival time from {@link Clock}.
+     * Constructs a new passenger with the given identifier, arrival time and attributes.
      * A creation message is logged via {@link Trace}.
-     */
-    public Passenger() {
-        id = i++;
-        this.isPriority = decideByFraction(priorityFraction);
-        this.checkIn = decideByFraction(checkInFraction);
-        this.luggage = decideByFraction(luggageFraction);
-        this.euCitizen = decideByFraction(euCitizenFraction);
-        arrivalTime = Clock.getInstance().getTime();
-        Trace.out(Trace.Level.INFO, "New  #" + id + " arrived at  " + arrivalTime);
-    }
-
-    /**
-     * Returns a boolean outcome for a Bernoulli trial with probability {@code fraction}.
-     * <ul>
-     *   <li>If {@code fraction <= 0}, returns {@code false}.</li>
-     *   <li>If {@code fraction >= 1}, returns {@code true}.</li>
-     *   <li>Otherwise samples {@link #RAND} &lt; {@code fraction}.</li>
-     * </ul>
      *
-     * @param fraction probability in [0,1]
-     * @return {@code true} with the given probability
+     * @param id sequential identifier
+     * @param arrivalTime simulation time at arrival
+     * @param isPriority whether the passenger has priority status
+     * @param checkIn whether the passenger needs check-in
+     * @param luggage whether the passenger needs luggage drop
+     * @param euCitizen whether the passenger is an EU citizen
      */
-    private static boolean decideByFraction(double fraction) {
-        if (fraction <= 0.0) return false;
-        if (fraction >= 1.0) return true;
-        return RAND.nextDouble() < fraction;
+    public Passenger(int id, double arrivalTime, boolean isPriority, boolean checkIn, boolean luggage, boolean euCitizen) {
+        assign(id, arrivalTime, isPriority, checkIn, luggage, euCitizen);
     }
 
     /**
-     * Sets the global fraction for priority assignment.
-     *
-     * @param f probability in [0, 1]
-     * @throws IllegalArgumentException if {@code f} is not within [0, 1]
+     * (Re)initialises this passenger as a new arrival. Used by the constructor and by the
+     * {@link PassengerGenerator} when it hands out a recycled instance.
      */
-    public static void setPriorityFraction(double f) {
-        if (f < 0.0 || f > 1.0) throw new IllegalArgumentException("priorityFraction must be between 0.0 and 1.0");
-        priorityFraction = f;
+    void assign(int id, double arrivalTime, boolean isPriority, boolean checkIn, boolean luggage, boolean euCitizen) {
+        this.id = id;
+        this.arrivalTime = arrivalTime;
+        this.removalTime = 0;
+        this.isPriority = isPriority;
+        this.checkIn = checkIn;
+        this.luggage = luggage;
+        this.euCitizen = euCitizen;
+        this.hasServiceTimes = false;
+        Trace.out(Trace.Level.INFO, () -> "New  #" + this.id + " arrived at  " + this.arrivalTime);
     }
 
     /**
-     * Sets the global fraction for luggage-drop assignment.
+     * Stores the service time this passenger will need at a station, drawn in advance for
+     * common random numbers. Used by the {@link PassengerGenerator}.
      *
-     * @param f probability in [0, 1]
-     * @throws IllegalArgumentException if {@code f} is not within [0, 1]
+     * @param station service completion event type of the station
+     * @param serviceTime service time at that station
      */
-    public static void setLuggageFraction(double f) {
-        if (f < 0.0 || f > 1.0) throw new IllegalArgumentException("luggageFraction must be between 0.0 and 1.0");
-        luggageFraction = f;
+    void setServiceTime(EventType station, double serviceTime) {
+        if (serviceTimes == null) {
+            serviceTimes = new double[EventType.values().length];
+        }
+        serviceTimes[station.ordinal()] = serviceTime;
+        hasServiceTimes = true;
     }
 
     /**
-     * Sets the global fraction for EU-citizenship assignment.
-     *
-     * @param f probability in [0, 1]
-     * @throws IllegalArgumentException if {@code f} is not within [0, 1]
+     * @return whether the service times of this passenger were drawn in advance
      */
-    public static void setEuCitizenFraction(double f) {
-        if (f < 0.0 || f > 1.0) throw new IllegalArgumentException("euCitizenFraction must be between 0.0 and 1.0");
-        euCitizenFraction = f;
+    boolean hasServiceTimes() {
+        return hasServiceTimes;
     }
 
     /**
-     * Sets the global fraction for check-in assignment.
-     *
-     * @param f probability in [0, 1]
-     * @throws IllegalArgumentException if {@code f} is not within [0, 1]
+     * @param station service completion event type of the station
+     * @return the service time drawn in advance for that station
      */
-    public static void setCheckInFraction(double f) {
-        if (f < 0.0 || f > 1.0) throw new IllegalArgumentException("checkInFraction must be between 0.0 and 1.0");
-        checkInFraction = f;
+    double getServiceTime(EventType station) {
+        return serviceTimes[station.ordinal()];
     }
 
-    /**
-     * @return the current global priority fraction
-     */
-    public static double getPriorityFraction() { return priorityFraction; }
-
     /**
      * @return the time this passenger left the system (simulation time units)
      */
@@ -217,32 +173,19 @@ public class Passenger {
     }
 
     /**
-     * @return the sequential identifier assigned at construction
+     * @return the sequential identifier assigned by the generator
      */
     public int getId() {
         return id;
     }
 
     /**
-     * Reports this passenger's timing results to the trace and updates the global
-     * cumulative service time.
-     * <p>
-     * Logs arrival, removal, and residence time (removal - arrival) via {@link Trace}.
-     * Adds the residence time to the global {@code sum}, computes a simple running
-     * mean as {@code sum / id}, and prints it to {@code System.out}.
-     * </p>
-     * <p><b>Note:</b> The computed mean uses the per-instance {@link #id} as the divisor.
-     * This matches a “first N passengers” average only if every passenger up to this id
-     * has called {@code reportResults()} exactly once.</p>
+     * Reports this passenger's timing results (arrival, removal and residence time) to the trace.
      */
     public void reportResults() {
-        Trace.out(Trace.Level.INFO, "\nPassenger " + id + " ready! ");
-        Trace.out(Trace.Level.INFO, "Passenger "   + id + " arrived: " + arrivalTime);
-        Trace.out(Trace.Level.INFO,"Passenger "    + id + " removed: " + removalTime);
-        Trace.out(Trace.Level.INFO,"Passenger "    + id + " stayed: "  + (removalTime - arrivalTime));
-
-        sum += (removalTime - arrivalTime);
-        double mean = sum/id;
-        System.out.println("Current mean of the Passenger service times " + mean);
+        Trace.out(Trace.Level.INFO, () -> "\nPassenger " + id + " ready! ");
+        Trace.out(Trace.Level.INFO, () -> "Passenger "   + id + " arrived: " + arrivalTime);
+        Trace.out(Trace.Level.INFO, () -> "Passenger "    + id + " removed: " + removalTime);
+        Trace.out(Trace.Level.INFO, () -> "Passenger "    + id + " stayed: "  + (removalTime - arrivalTime));
     }
 }
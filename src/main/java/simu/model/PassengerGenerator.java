@@ -0,0 +1,204 @@
+package simu.model;
+
+import simu.framework.SimulationContext;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Creates the passengers of one simulation.
+ * <p>
+ * Holds what used to be shared static state in {@link Passenger}: the PRNG for the Bernoulli
+ * decisions and the attribute fractions. Ids and arrival times come from the
+ * {@link SimulationContext}. Each {@link MyEngine} owns one generator, so simulations running in
+ * parallel neither share ids nor random numbers, and a fixed root seed makes the passenger stream
+ * reproducible.
+ * </p>
+ * <p>
+ * Passengers that have left the system can be handed back with {@link #release(Passenger)}.
+ * They are kept on a free list and reused by {@link #next()}, so a long run only allocates as many
+ * passengers as are in the system at the same time.
+ * </p>
+ *
+ * <p>
+ * With {@link SimulationContext#isCommonRandomNumbers()} every attribute has its own stream, split
+ * from the passenger stream of the context, and is drawn for every passenger even when its
+ * fraction is 0 or 1. The service times of all stations are then drawn at arrival as well (see
+ * {@link #presampleServiceTimes(ServicePoint[])}), so passenger {@code n} is the same passenger
+ * whatever the line configuration and the fractions.
+ * </p>
+ *
+ * <h3>Randomness &amp; fractions</h3>
+ * <ul>
+ *   <li>Values &le; 0 produce {@code false}, values &ge; 1 produce {@code true}, otherwise
+ *       a sample is drawn from this generator's {@link RandomGenerator}.</li>
+ *   <li>When a fraction is exactly 0 or 1, outcomes are deterministic.</li>
+ * </ul>
+ */
+public class PassengerGenerator {
+    /** Context providing the clock for arrival times and the id counter. */
+    private final SimulationContext context;
+
+    /** PRNG for all Bernoulli decisions of this simulation. */
+    private final RandomGenerator random;
+
+    /** CRN mode: one stream per attribute (priority, check-in, luggage, EU citizen); null otherwise. */
+    private final RandomGenerator[] attributeStreams;
+
+    /** CRN mode: stations whose service times are drawn at arrival; null otherwise. */
+    private ServicePoint[] presampledStations;
+
+    /** Released passengers waiting for reuse; the first {@code freeCount} slots are in use. */
+    private Passenger[] free = new Passenger[16];
+    private int freeCount = 0;
+
+    /** Fraction for assigning priority status. */
+    private double priorityFraction = 0.2;
+
+    /** Fraction for assigning luggage-drop requirement. */
+    private double luggageFraction = 0.7;
+
+    /** Fraction for assigning EU citizenship. */
+    private double euCitizenFraction = 0.9;
+
+    /** Fraction for assigning check-in requirement. */
+    private double checkInFraction = 0.8;
+
+    /**
+     * @param context context of the simulation; the attribute stream is seeded from it
+     */
+    public PassengerGenerator(SimulationContext context) {
+        this.context = context;
+        this.random = context.newRandom();
+        if (context.isCommonRandomNumbers()) {
+            SplittableRandom root = new SplittableRandom(random.nextLong());
+            attributeStreams = new RandomGenerator[]{root.split(), root.split(), root.split(), root.split()};
+        } else {
+            attributeStreams = null;
+        }
+    }
+
+    /**
+     * Makes {@link #next()} draw the service times of the given stations for every new passenger
+     * in CRN mode, from each station's generator in turn. A station then uses the passenger's
+     * time instead of drawing one when the service starts, so the times do not depend on the
+     * order in which passengers are served. Has no effect outside CRN mode.
+     *
+     * @param stations service points of the simulation
+     */
+    void presampleServiceTimes(ServicePoint[] stations) {
+        if (attributeStreams != null) {
+            presampledStations = stations.clone();
+        }
+    }
+
+    /**
+     * Creates the next passenger, reusing a released one if available: assigns a sequential id,
+     * draws the attributes from the configured fractions and stamps the current simulation time.
+     *
+     * @return the new passenger
+     */
+    public Passenger next() {
+        boolean isPriority, checkIn, luggage, euCitizen;
+        if (attributeStreams == null) {
+            isPriority = decideByFraction(priorityFraction);
+            checkIn = decideByFraction(checkInFraction);
+            luggage = decideByFraction(luggageFraction);
+            euCitizen = decideByFraction(euCitizenFraction);
+        } else {
+            isPriority = attributeStreams[0].nextDouble() < priorityFraction;
+            checkIn = attributeStreams[1].nextDouble() < checkInFraction;
+            luggage = attributeStreams[2].nextDouble() < luggageFraction;
+            euCitizen = attributeStreams[3].nextDouble() < euCitizenFraction;
+        }
+        Passenger p;
+        if (freeCount == 0) {
+            p = new Passenger(context.nextId(), context.getTime(), isPriority, checkIn, luggage, euCitizen);
+        } else {
+            p = free[--freeCount];
+            free[freeCount] = null;
+            p.assign(context.nextId(), context.getTime(), isPriority, checkIn, luggage, euCitizen);
+        }
+        if (presampledStations != null) {
+            for (ServicePoint station : presampledStations) {
+                p.setServiceTime(station.getServiceEventType(), station.sampleServiceTime());
+            }
+        }
+        return p;
+    }
+
+    /**
+     * Hands a passenger that has left the system back for reuse. The caller must not use the
+     * passenger afterwards.
+     *
+     * @param p passenger to recycle
+     */
+    public void release(Passenger p) {
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, free.length * 2);
+        }
+        free[freeCount++] = p;
+    }
+
+    /**
+     * Returns a boolean outcome for a Bernoulli trial with probability {@code fraction}.
+     *
+     * @param fraction probability in [0,1]
+     * @return {@code true} with the given probability
+     */
+    private boolean decideByFraction(double fraction) {
+        if (fraction <= 0.0) return false;
+        if (fraction >= 1.0) return true;
+        return random.nextDouble() < fraction;
+    }
+
+    /**
+     * Sets the fraction for priority assignment.
+     *
+     * @param f probability in [0, 1]
+     * @throws IllegalArgumentException if {@code f} is not within [0, 1]
+     */
+    public void setPriorityFraction(double f) {
+        if (f < 0.0 || f > 1.0) throw new IllegalArgumentException("priorityFraction must be between 0.0 and 1.0");
+        priorityFraction = f;
+    }
+
+    /**
+     * Sets the fraction for luggage-drop assignment.
+     *
+     * @param f probability in [0, 1]
+     * @throws IllegalArgumentException if {@code f} is not within [0, 1]
+     */
+    public void setLuggageFraction(double f) {
+        if (f < 0.0 || f > 1.0) throw new IllegalArgumentException("luggageFraction must be between 0.0 and 1.0");
+        luggageFraction = f;
+    }
+
+    /**
+     * Sets the fraction for EU-citizenship assignment.
+     *
+     * @param f probability in [0, 1]
+     * @throws IllegalArgumentException if {@code f} is not within [0, 1]
+     */
+    public void setEuCitizenFraction(double f) {
+        if (f < 0.0 || f > 1.0) throw new IllegalArgumentException("euCitizenFraction must be between 0.0 and 1.0");
+        euCitizenFraction = f;
+    }
+
+    /**
+     * Sets the fraction for check-in assignment.
+     *
+     * @param f probability in [0, 1]
+     * @throws IllegalArgumentException if {@code f} is not within [0, 1]
+     */
+    public void setCheckInFraction(double f) {
+        if (f < 0.0 || f > 1.0) throw new IllegalArgumentException("checkInFraction must be between 0.0 and 1.0");
+        checkInFraction = f;
+    }
+
+    /**
+     * @return the current priority fraction
+     */
+    public double getPriorityFraction() { return priorityFraction; }
+}
@@ -0,0 +1,75 @@
+package simu.model;
+
+import java.util.Arrays;
+
+/**
+ * FIFO line of a {@link ServicePoint}, stored in a growable ring buffer.
+ * <p>
+ * Unlike {@link java.util.LinkedList} no node is allocated per passenger; the backing array
+ * only grows (doubling) when the line gets longer than ever before, so a line that has reached
+ * its working size no longer allocates.
+ * </p>
+ */
+class PassengerQueue {
+    private Passenger[] elements = new Passenger[8]; // length is always a power of two
+    private int head = 0;
+    private int size = 0;
+
+    /**
+     * Appends a passenger to the end of the line.
+     *
+     * @param p passenger to append
+     */
+    void add(Passenger p) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[(head + size) & (elements.length - 1)] = p;
+        size++;
+    }
+
+    /**
+     * Removes the passenger at the head of the line.
+     *
+     * @return the removed passenger, or null if the line is empty
+     */
+    Passenger poll() {
+        if (size == 0) {
+            return null;
+        }
+        Passenger p = elements[head];
+        elements[head] = null;
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return p;
+    }
+
+    /**
+     * @return the passenger at the head of the line, or null if the line is empty
+     */
+    Passenger peek() {
+        return size == 0 ? null : elements[head];
+    }
+
+    /**
+     * @return number of passengers in the line
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the line is empty
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void grow() {
+        // the buffer is full: move the wrapped part in front of head behind the old end
+        Passenger[] larger = Arrays.copyOf(elements, elements.length * 2);
+        System.arraycopy(elements, 0, larger, elements.length, head);
+        Arrays.fill(larger, 0, head, null);
+        elements = larger;
+    }
+}
@@ -0,0 +1,141 @@
+package simu.model;
+
+import java.util.Arrays;
+
+/**
+ * Index of the line lengths of a {@link ServicePoint}, answering "which line is shortest" and
+ * "which line is longest" without scanning all lines.
+ * <p>
+ * Lines are kept in buckets by their current length. Each bucket is a bit set of line indices,
+ * and the shortest and longest non-empty buckets are tracked. Lengths only ever change by one,
+ * so both bounds move by at most one bucket per update. A query returns the lowest line index in
+ * the bucket, which costs one word read per 64 lines; the selection is therefore the same as a
+ * linear scan that prefers the first line on ties.
+ * </p>
+ */
+public class QueueLengthIndex {
+    private final int lineCount;
+    private final int words;       // longs per bucket
+    private final int[] lengths;   // current length per line
+    private long[][] buckets;      // buckets[length] = bit set of lines with that length
+    private int[] bucketSizes;     // number of lines in each bucket
+    private int minLength = 0;
+    private int maxLength = 0;
+
+    /**
+     * Creates the index with all lines empty.
+     *
+     * @param lineCount number of lines
+     * @throws IllegalArgumentException if lineCount <= 0
+     */
+    public QueueLengthIndex(int lineCount) {
+        if (lineCount <= 0) {
+            throw new IllegalArgumentException("lineCount must be > 0");
+        }
+        this.lineCount = lineCount;
+        this.words = (lineCount + 63) >>> 6;
+        this.lengths = new int[lineCount];
+        this.buckets = new long[4][words];
+        this.bucketSizes = new int[4];
+        for (int i = 0; i < lineCount; i++) {
+            buckets[0][i >>> 6] |= 1L << i;
+        }
+        bucketSizes[0] = lineCount;
+    }
+
+    /**
+     * @return index of the shortest line, the lowest index on ties
+     */
+    public int shortest() {
+        return firstLine(minLength);
+    }
+
+    /**
+     * @return index of the longest line, the lowest index on ties
+     */
+    public int longest() {
+        return firstLine(maxLength);
+    }
+
+    /**
+     * @param line line index
+     * @return current length of the line
+     */
+    public int length(int line) {
+        return lengths[line];
+    }
+
+    /**
+     * @return length of the longest line
+     */
+    public int maxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Records that a passenger joined the given line.
+     *
+     * @param line line index
+     */
+    public void increment(int line) {
+        int length = lengths[line];
+        if (length + 1 == buckets.length) {
+            grow();
+        }
+        move(line, length, length + 1);
+        if (length + 1 > maxLength) {
+            maxLength = length + 1;
+        }
+        if (length == minLength && bucketSizes[length] == 0) {
+            minLength = length + 1;
+        }
+    }
+
+    /**
+     * Records that a passenger left the given line.
+     *
+     * @param line line index
+     * @throws IllegalStateException if the line is already empty
+     */
+    public void decrement(int line) {
+        int length = lengths[line];
+        if (length == 0) {
+            throw new IllegalStateException("line " + line + " is empty");
+        }
+        move(line, length, length - 1);
+        if (length - 1 < minLength) {
+            minLength = length - 1;
+        }
+        if (length == maxLength && bucketSizes[length] == 0) {
+            maxLength = length - 1;
+        }
+    }
+
+    private void move(int line, int from, int to) {
+        long bit = 1L << line;
+        buckets[from][line >>> 6] &= ~bit;
+        bucketSizes[from]--;
+        buckets[to][line >>> 6] |= bit;
+        bucketSizes[to]++;
+        lengths[line] = to;
+    }
+
+    private int firstLine(int length) {
+        long[] bucket = buckets[length];
+        for (int w = 0; w < words; w++) {
+            if (bucket[w] != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(bucket[w]);
+            }
+        }
+        throw new IllegalStateException("empty length bucket " + length + " of " + lineCount + " lines");
+    }
+
+    private void grow() {
+        int oldCount = buckets.length;
+        buckets = Arrays.copyOf(buckets, oldCount * 2);
+        for (int i = oldCount; i < buckets.length; i++) {
+            buckets[i] = new long[words];
+        }
+        bucketSizes = Arrays.copyOf(bucketSizes, buckets.length);
+    }
+}
@@ -0,0 +1,187 @@
+package simu.model;
+
+import controller.HeadlessController;
+import eduni.distributions.SamplingMethod;
+import eduni.distributions.SeedGenerator;
+import eduni.distributions.SplittableSource;
+import simu.framework.EventList;
+import simu.framework.RunOutcome;
+import simu.framework.SimulationContext;
+import simu.model.entity.RunStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent replications of the same airport configuration in parallel and merges them
+ * into a {@link ReplicationSummary}.
+ * <p>
+ * A master {@link SeedGenerator} seeded with the root seed hands every replication the root of its
+ * own {@link SimulationContext}. The master spacing covers all {@link MyEngine#SEEDS_PER_ENGINE}
+ * streams of one engine, so the streams of different replications never overlap, and replication
+ * {@code r} always gets the same streams. The results are therefore reproducible and do not depend
+ * on the number of worker threads. The engines run headless (no delay, no database) on a
+ * work-stealing pool.
+ * </p>
+ * <p>
+ * With {@link #setSplittableStreams(boolean)} every replication instead gets a context split from
+ * one root {@link SplittableSource}: no seed spacing is needed and the streams cannot overlap,
+ * however many replications are run.
+ * </p>
+ * <p>
+ * {@link #compare(int[])} runs a second configuration on the same streams, replication by
+ * replication, and summarises the paired differences. With
+ * {@link #setCommonRandomNumbers(boolean)} both configurations see the same passengers with the
+ * same service times, which makes the confidence interval of the difference much narrower than
+ * that of two independent sets of replications.
+ * </p>
+ */
+public class ReplicationRunner {
+    private final int[] lineCounts;
+    private final double simulationTime;
+    private final int replications;
+    private final long rootSeed;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private Supplier<EventList> eventListFactory = EventList::new;
+    private boolean splittableStreams = false;
+    private int sampleBlockSize = 0;
+    private SamplingMethod samplingMethod = SamplingMethod.CLASSIC;
+    private boolean commonRandomNumbers = false;
+
+    /**
+     * @param lineCounts line counts per station (length 8), shared by all replications
+     * @param simulationTime simulated time of each replication
+     * @param replications number of independent replications
+     * @param rootSeed root seed of the seed stream, must be in 1..2^31-2 for the MLCG streams
+     * @throws IllegalArgumentException if {@code replications} is not positive
+     */
+    public ReplicationRunner(int[] lineCounts, double simulationTime, int replications, long rootSeed) {
+        if (replications <= 0) {
+            throw new IllegalArgumentException("replications must be > 0");
+        }
+        this.lineCounts = lineCounts.clone();
+        this.simulationTime = simulationTime;
+        this.replications = replications;
+        this.rootSeed = rootSeed;
+    }
+
+    /**
+     * @param parallelism number of worker threads; defaults to the number of processors
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be > 0");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param eventListFactory creates the event list of each replication
+     */
+    public void setEventListFactory(Supplier<EventList> eventListFactory) {
+        this.eventListFactory = eventListFactory;
+    }
+
+    /**
+     * @param splittableStreams true to split the streams from a 64-bit {@link SplittableSource},
+     *                          false (default) for the legacy MLCG seed stream
+     */
+    public void setSplittableStreams(boolean splittableStreams) {
+        this.splittableStreams = splittableStreams;
+    }
+
+    /**
+     * @param sampleBlockSize block size of the generators, see {@link SimulationContext#setSampleBlockSize(int)}
+     */
+    public void setSampleBlockSize(int sampleBlockSize) {
+        this.sampleBlockSize = sampleBlockSize;
+    }
+
+    /**
+     * @param samplingMethod algorithm of the generators, see {@link SimulationContext#setSamplingMethod(SamplingMethod)}
+     */
+    public void setSamplingMethod(SamplingMethod samplingMethod) {
+        this.samplingMethod = samplingMethod;
+    }
+
+    /**
+     * @param commonRandomNumbers true to synchronise the streams of each replication, see
+     *                            {@link SimulationContext#setCommonRandomNumbers(boolean)}
+     */
+    public void setCommonRandomNumbers(boolean commonRandomNumbers) {
+        this.commonRandomNumbers = commonRandomNumbers;
+    }
+
+    /**
+     * Runs all replications and waits for them to finish.
+     * @return merged statistics
+     * @throws InterruptedException if the calling thread is interrupted while waiting or a
+     *                              replication was cancelled
+     * @throws IllegalStateException if a replication fails
+     */
+    public ReplicationSummary run() throws InterruptedException {
+        return ReplicationSummary.of(runAll(lineCounts));
+    }
+
+    /**
+     * Runs all replications of this configuration (A) and of another one (B) on the same streams
+     * and waits for them to finish.
+     * @param otherLineCounts line counts per station of configuration B (length 8)
+     * @return statistics of the paired differences A - B
+     * @throws InterruptedException if the calling thread is interrupted while waiting or a
+     *                              replication was cancelled
+     * @throws IllegalStateException if a replication fails
+     */
+    public ReplicationSummary compare(int[] otherLineCounts) throws InterruptedException {
+        return ReplicationSummary.ofDifferences(runAll(lineCounts), runAll(otherLineCounts.clone()));
+    }
+
+    private List<RunStatistics> runAll(int[] lineCounts) throws InterruptedException {
+        SeedGenerator master = new SeedGenerator(rootSeed, SimulationContext.SEED_SPACING * MyEngine.SEEDS_PER_ENGINE);
+        SplittableSource root = new SplittableSource(rootSeed);
+        List<MyEngine> engines = new ArrayList<>(replications);
+        List<Callable<RunStatistics>> tasks = new ArrayList<>(replications);
+        for (int r = 0; r < replications; r++) {
+            HeadlessController controller = new HeadlessController();
+            SimulationContext context = splittableStreams
+                    ? new SimulationContext(root.split())
+                    : new SimulationContext(master.sample());
+            context.setSampleBlockSize(sampleBlockSize);
+            context.setSamplingMethod(samplingMethod);
+            context.setCommonRandomNumbers(commonRandomNumbers);
+            MyEngine engine = new MyEngine(controller, lineCounts, eventListFactory.get(), context);
+            engine.setSimulationTime(simulationTime);
+            engine.setDelay(0);
+            engine.setPersistResults(false);
+            engines.add(engine);
+            tasks.add(() -> {
+                engine.run();
+                return controller.getRunStatistics();   // null if the run was cancelled
+            });
+        }
+
+        ExecutorService pool = Executors.newWorkStealingPool(parallelism);
+        try {
+            List<Future<RunStatistics>> futures = pool.invokeAll(tasks);
+            List<RunStatistics> results = new ArrayList<>(replications);
+            for (int r = 0; r < replications; r++) {
+                RunStatistics statistics = futures.get(r).get();
+                if (engines.get(r).getOutcome() != RunOutcome.COMPLETED) {
+                    throw new InterruptedException("Replication " + r + " was cancelled");
+                }
+                results.add(statistics);
+            }
+            return results;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Replication failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package simu.model;
+
+import simu.model.entity.RunStatistics;
+
+import java.util.List;
+
+/**
+ * Mean and 95&nbsp;% confidence interval of the queue statistics over independent replications.
+ * <p>
+ * Values are kept per station in the same index order as the service points of
+ * {@link MyEngine} (0 = check-in ... 7 = gate). The half-width of the interval uses the
+ * Student t quantile for {@code n - 1} degrees of freedom, so it is only defined for two or
+ * more replications; with a single replication it is {@link Double#NaN}.
+ * </p>
+ * <p>
+ * A summary made with {@link #ofDifferences(List, List)} holds the paired differences between two
+ * configurations run on the same streams instead, e.g. with common random numbers.
+ * </p>
+ */
+public class ReplicationSummary {
+    /** Station names in service point index order. */
+    public static final String[] STATION_NAMES = {
+            "Check-in", "Luggage drop", "Luggage drop (priority)", "Security", "Security (priority)",
+            "Passport control", "Passport control (priority)", "Gate"
+    };
+
+    /** Two-sided 95 % Student t quantiles for 1..30 degrees of freedom. */
+    private static final double[] T_95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+    private static final double Z_95 = 1.959964;
+
+    private final int replications;
+    private final boolean differences;
+    private final double[] averageLengthMean;
+    private final double[] averageLengthHalfWidth;
+    private final double[] maxLengthMean;
+    private final double[] maxLengthHalfWidth;
+
+    private ReplicationSummary(int replications, boolean differences, double[] averageLengthMean,
+                               double[] averageLengthHalfWidth, double[] maxLengthMean, double[] maxLengthHalfWidth) {
+        this.replications = replications;
+        this.differences = differences;
+        this.averageLengthMean = averageLengthMean;
+        this.averageLengthHalfWidth = averageLengthHalfWidth;
+        this.maxLengthMean = maxLengthMean;
+        this.maxLengthHalfWidth = maxLengthHalfWidth;
+    }
+
+    /**
+     * Merges the statistics of independent replications.
+     * @param runs statistics of every replication
+     * @return the summary
+     * @throws IllegalArgumentException if {@code runs} is empty
+     */
+    public static ReplicationSummary of(List<RunStatistics> runs) {
+        if (runs.isEmpty()) {
+            throw new IllegalArgumentException("at least one replication is needed");
+        }
+        int n = runs.size();
+        int stations = STATION_NAMES.length;
+        double[][] averages = new double[stations][n];
+        double[][] maxima = new double[stations][n];
+        for (int r = 0; r < n; r++) {
+            double[] avg = averageLengths(runs.get(r));
+            int[] max = maxLengths(runs.get(r));
+            for (int s = 0; s < stations; s++) {
+                averages[s][r] = avg[s];
+                maxima[s][r] = max[s];
+            }
+        }
+        return summarise(n, false, averages, maxima);
+    }
+
+    /**
+     * Merges the paired differences {@code a - b} of two configurations. Replication {@code r} of
+     * both lists must have been run on the same random streams.
+     * @param a statistics of every replication of the first configuration
+     * @param b statistics of the same replications of the second configuration
+     * @return the summary of the differences
+     * @throws IllegalArgumentException if the lists are empty or differ in size
+     */
+    public static ReplicationSummary ofDifferences(List<RunStatistics> a, List<RunStatistics> b) {
+        if (a.isEmpty() || a.size() != b.size()) {
+            throw new IllegalArgumentException("the same positive number of replications is needed");
+        }
+        int n = a.size();
+        int stations = STATION_NAMES.length;
+        double[][] averages = new double[stations][n];
+        double[][] maxima = new double[stations][n];
+        for (int r = 0; r < n; r++) {
+            double[] avgA = averageLengths(a.get(r)), avgB = averageLengths(b.get(r));
+            int[] maxA = maxLengths(a.get(r)), maxB = maxLengths(b.get(r));
+            for (int s = 0; s < stations; s++) {
+                averages[s][r] = avgA[s] - avgB[s];
+                maxima[s][r] = maxA[s] - maxB[s];
+            }
+        }
+        return summarise(n, true, averages, maxima);
+    }
+
+    private static ReplicationSummary summarise(int n, boolean differences, double[][] averages, double[][] maxima) {
+        int stations = STATION_NAMES.length;
+        double[] avgMean = new double[stations], avgHalf = new double[stations];
+        double[] maxMean = new double[stations], maxHalf = new double[stations];
+        for (int s = 0; s < stations; s++) {
+            avgMean[s] = mean(averages[s]);
+            avgHalf[s] = halfWidth(averages[s], avgMean[s]);
+            maxMean[s] = mean(maxima[s]);
+            maxHalf[s] = halfWidth(maxima[s], maxMean[s]);
+        }
+        return new ReplicationSummary(n, differences, avgMean, avgHalf, maxMean, maxHalf);
+    }
+
+    private static double[] averageLengths(RunStatistics s) {
+        return new double[]{
+                s.getCheckInQueueAverageLength(), s.getLuggageDropQueueAverageLength(),
+                s.getPriorityLuggageDropQueueAverageLength(), s.getSecurityQueueAverageLength(),
+                s.getPrioritySecurityQueueAverageLength(), s.getPassportControlQueueAverageLength(),
+                s.getPriorityPassportControlQueueAverageLength(), s.getGateQueueAverageLength()
+        };
+    }
+
+    private static int[] maxLengths(RunStatistics s) {
+        return new int[]{
+                s.getCheckInQueueMaxLength(), s.getLuggageDropQueueMaxLength(),
+                s.getPriorityLuggageDropQueueMaxLength(), s.getSecurityQueueMaxLength(),
+                s.getPrioritySecurityQueueMaxLength(), s.getPassportControlQueueMaxLength(),
+                s.getPriorityPassportControlQueueMaxLength(), s.getGateQueueMaxLength()
+        };
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double v : values) sum += v;
+        return sum / values.length;
+    }
+
+    private static double halfWidth(double[] values, double mean) {
+        int n = values.length;
+        if (n < 2) return Double.NaN;
+        double squares = 0;
+        for (double v : values) squares += (v - mean) * (v - mean);
+        double standardError = Math.sqrt(squares / (n - 1) / n);
+        return tQuantile(n - 1) * standardError;
+    }
+
+    /**
+     * Two-sided 95 % t quantile: tabulated up to 30 degrees of freedom, Cornish-Fisher expansion above.
+     */
+    static double tQuantile(int degreesOfFreedom) {
+        if (degreesOfFreedom <= T_95.length) {
+            return T_95[degreesOfFreedom - 1];
+        }
+        double z = Z_95, df = degreesOfFreedom;
+        return z + (z * z * z + z) / (4 * df)
+                + (5 * Math.pow(z, 5) + 16 * z * z * z + 3 * z) / (96 * df * df);
+    }
+
+    /** @return number of merged replications */
+    public int getReplications() { return replications; }
+
+    /** @return true if the values are paired differences between two configurations */
+    public boolean isDifferences() { return differences; }
+
+    /** @param station service point index @return mean of the average queue lengths */
+    public double getAverageLengthMean(int station) { return averageLengthMean[station]; }
+
+    /** @param station service point index @return 95 % CI half-width of the average queue length */
+    public double getAverageLengthHalfWidth(int station) { return averageLengthHalfWidth[station]; }
+
+    /** @param station service point index @return mean of the maximum queue lengths */
+    public double getMaxLengthMean(int station) { return maxLengthMean[station]; }
+
+    /** @param station service point index @return 95 % CI half-width of the maximum queue length */
+    public double getMaxLengthHalfWidth(int station) { return maxLengthHalfWidth[station]; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(differences
+                ? "%d paired replications, mean difference A - B +/- 95%% CI half-width%n"
+                : "%d replications, mean +/- 95%% CI half-width%n", replications));
+        sb.append(String.format("%-28s %24s %24s%n", "Station", "Average queue length", "Max queue length"));
+        for (int s = 0; s < STATION_NAMES.length; s++) {
+            sb.append(String.format("%-28s %12.3f +/- %7.3f %12.2f +/- %7.2f%n", STATION_NAMES[s],
+                    averageLengthMean[s], averageLengthHalfWidth[s], maxLengthMean[s], maxLengthHalfWidth[s]));
+        }
+        return sb.toString();
+    }
+}
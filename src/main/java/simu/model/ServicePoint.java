@@ -1,31 +1,32 @@
 package simu.model;
 
 import eduni.distributions.ContinuousGenerator;
-import simu.framework.Clock;
-import simu.framework.Event;
+import simu.framework.SimulationContext;
 import simu.framework.EventList;
 import simu.framework.Trace;
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.Random;
 
 /**
  * Represents a service point in the simulation.
  * Each service point has one or more queues where passengers wait,
  * and servers that process them. It also tracks statistics such as
- * maximum and average queue lengths.
+ * maximum and time-averaged queue lengths, updated in constant time
+ * whenever a line changes.
  */
 public class ServicePoint {
-    private LinkedList<Passenger>[] queues; // array of queues
+    private PassengerQueue[] queues;        // array of queues
     private ContinuousGenerator generator;  // Random generator
     private EventList eventList;            // Event list for scheduling
     private EventType eventTypeScheduled;   // Event type for service completion
+    private SimulationContext context;      // Clock and ids of the owning simulation
     private boolean[] reserved;             // Tracks which lines are busy
-    private int maxLength = Integer.MIN_VALUE;
-    private int minLength = Integer.MAX_VALUE;
-    private long sampleCount = 0;
-    private long sampleSum = 0;
-    private double averageLength;
+    private QueueLengthIndex lengthIndex;   // Shortest and longest line lookup
+    private int maxLength = 0;              // Longest line observed
+    private int queuedPassengers = 0;       // Passengers on all lines, including those in service
+    private double queueArea = 0;           // Integral of queuedPassengers over time
+    private double startTime;               // Time the statistics started
+    private double lastChangeTime;          // Time queueArea was last brought up to date
+    private StationLoad load;               // Live load for a viewer, or null
+    private int loadIndex;                  // Index of this service point in load
 
     /**
      * Create the service point with the given number of queues.
@@ -37,76 +38,72 @@ public class ServicePoint {
      * @throws IllegalArgumentException if lineCount <= 0
      */
     public ServicePoint(ContinuousGenerator generator, EventList eventList, EventType type, int lineCount) {
+        this(generator, eventList, type, lineCount, new SimulationContext());
+    }
+
+    /**
+     * Create the service point with the given number of queues, scheduling against the clock of the given context.
+     *
+     * @param generator  random number generator for service time simulation
+     * @param eventList  simulator event list, needed for inserting service completion events
+     * @param type       event type for the service end event
+     * @param lineCount  number of lines in this service point
+     * @param context    context of the simulation this service point belongs to
+     * @throws IllegalArgumentException if lineCount <= 0
+     */
+    public ServicePoint(ContinuousGenerator generator, EventList eventList, EventType type, int lineCount, SimulationContext context) {
         if (lineCount <= 0) {
             throw new IllegalArgumentException("lineCount must be > 0");
         }
         this.eventList = eventList;
         this.generator = generator;
         this.eventTypeScheduled = type;
+        this.context = context;
 
-        // reset stats
-        this.maxLength = Integer.MIN_VALUE;
-        this.minLength = Integer.MAX_VALUE;
-        this.sampleCount = 0;
-        this.sampleSum = 0;
+        // all lines start empty
+        this.startTime = context.getTime();
+        this.lastChangeTime = startTime;
 
-        queues = new LinkedList[lineCount];
+        queues = new PassengerQueue[lineCount];
         reserved = new boolean[lineCount];
         for (int i = 0; i < lineCount; i++) {
-            queues[i] = new LinkedList<>();
+            queues[i] = new PassengerQueue();
             reserved[i] = false;
         }
-        sampleAllQueues();
+        lengthIndex = new QueueLengthIndex(lineCount);
     }
 
     /**
-     * Add a passenger to the shortest available queue.
+     * Add a passenger to the shortest available queue, the first one on ties.
      *
      * @param a passenger to be queued
      */
     public void addQueue(Passenger a) { // The first customer of the queue is always in service
-        int shortestQueue = queues[0].size();
-        int shortestQueueIndex = 0;
-        for (int i = 0; i < queues.length; i++) {
-            int lengthOfQueue = queues[i].size();
-
-            if (lengthOfQueue < shortestQueue) {
-                shortestQueue = lengthOfQueue;
-                shortestQueueIndex = i;
-            }
-            if (lengthOfQueue == 0) {
-                shortestQueueIndex = i;
-                break;
-            }
-        }
+        int shortestQueueIndex = lengthIndex.shortest();
         queues[shortestQueueIndex].add(a);
-        sampleAllQueues();
+        lengthIndex.increment(shortestQueueIndex);
+        queueLengthChanged(shortestQueueIndex, 1);
     }
 
     /**
-     * Remove a passenger from the longest queue.
+     * Remove a passenger from the longest queue, the first one on ties.
      * Updates statistics as well.
      *
      * @return passenger retrieved from the waiting queue, or null if all queues are empty
      */
     public Passenger removeQueue() {
-        int longestQueue = -1;
-        int longestQueueIndex = -1;
-        for (int i = 0; i < queues.length; i++) {
-            int lengthOfQueue = queues[i].size();
-
-            if (lengthOfQueue > longestQueue) {
-                longestQueue = lengthOfQueue;
-                longestQueueIndex = i;
-            }
+        if (lengthIndex.maxLength() == 0) {
+            return null;
         }
-        if (longestQueueIndex != -1 && longestQueue > 0) {
-            reserved[longestQueueIndex] = false;
-            sampleAllQueues();
-            return queues[longestQueueIndex].poll();
+        int longestQueueIndex = lengthIndex.longest();
+        reserved[longestQueueIndex] = false;
+        Passenger p = queues[longestQueueIndex].poll();
+        lengthIndex.decrement(longestQueueIndex);
+        queueLengthChanged(longestQueueIndex, -1);
+        if (load != null) {
+            load.departed(loadIndex);
         }
-
-        return null;
+        return p;
     }
 
     /**
@@ -119,12 +116,10 @@ public class ServicePoint {
         // Begins a new service, customer is on the queue during the service
         Passenger p = queues[lineIndex].peek();
         if (p != null) {
-            Trace.out(Trace.Level.INFO,
-                    "Starting a new service for the customer #" + queues[lineIndex].peek().getId());
+            Trace.out(Trace.Level.INFO, () -> "Starting a new service for the customer #" + p.getId());
             reserved[lineIndex] = true;
-            double serviceTime = generator.sample();
-            eventList.add(new Event(eventTypeScheduled, Clock.getInstance().getTime() + serviceTime));
-            sampleAllQueues();
+            double serviceTime = p.hasServiceTimes() ? p.getServiceTime(eventTypeScheduled) : generator.sample();
+            eventList.add(eventTypeScheduled, context.getTime() + serviceTime);
         }
     }
 
@@ -162,28 +157,37 @@ public class ServicePoint {
     }
 
     /**
-     * Records current length to statistics and max length
-     * @param length records current length to statistics
+     * Updates the statistics after one line changed length. Only the changed line is looked at,
+     * so the cost does not depend on the number of lines.
+     *
+     * @param lineIndex index of the line that changed
+     * @param delta     change in the number of passengers on that line
      */
+    private void queueLengthChanged(int lineIndex, int delta) {
+        double now = context.getTime();
+        queueArea += queuedPassengers * (now - lastChangeTime);
+        lastChangeTime = now;
+        queuedPassengers += delta;
 
-    private void recordQueueLength(int length) {
-        sampleSum += length;
-        sampleCount++;
+        int length = lengthIndex.length(lineIndex);
         if (length > maxLength) {
             maxLength = length;
         }
-        if (length < minLength) {
-            minLength = length;
+        if (load != null) {
+            load.setQueued(loadIndex, queuedPassengers);
         }
     }
 
     /**
-     * Samples the length of all queues and updates statistics.
+     * Publishes the number of queued and departed passengers of this service point to a viewer.
+     *
+     * @param load  live load shared with the viewer
+     * @param index index of this service point in {@code load}
      */
-    public void sampleAllQueues() {
-        for (LinkedList<Passenger> q : queues) {
-            recordQueueLength(q.size());
-        }
+    void publishTo(StationLoad load, int index) {
+        this.load = load;
+        this.loadIndex = index;
+        load.setQueued(index, queuedPassengers);
     }
 
     /**
@@ -195,29 +199,48 @@ public class ServicePoint {
         return queues.length;
     }
 
+    /**
+     * @return event type of a service completion at this station
+     */
+    EventType getServiceEventType() {
+        return eventTypeScheduled;
+    }
+
+    /**
+     * Draws the next service time of this station, e.g. to assign it to a passenger in advance.
+     *
+     * @return service time
+     */
+    double sampleServiceTime() {
+        return generator.sample();
+    }
+
     /**
      * Get the maximum observed queue length.
      *
-     * @return maximum queue length, or 0 if no samples exist
+     * @return longest length any line has had, 0 if nobody has queued yet
      */
     public int getMaxLength() {
-        if (maxLength == Integer.MIN_VALUE) {
-            return 0;
-        } else {
-            return maxLength;
-        }
+        return maxLength;
     }
 
     /**
-     * Get the average queue length across all samples.
+     * Get the time-weighted average length of a line, from the creation of the service point up to
+     * the current simulation time.
+     * <p>
+     * Before any simulation time has passed there is nothing to average over, so the current
+     * average line length is returned instead.
+     * </p>
      *
-     * @return average queue length, or 0.0 if no samples exist
+     * @return time-average number of passengers per line
      */
     public double getAverageLength() {
-        if (sampleCount == 0) {
-            return 0.0;
-        } else {
-            return (double) sampleSum / sampleCount;
+        double now = context.getTime();
+        double elapsed = now - startTime;
+        if (elapsed <= 0) {
+            return (double) queuedPassengers / queues.length;
         }
+        double area = queueArea + queuedPassengers * (now - lastChangeTime);
+        return area / elapsed / queues.length;
     }
 }
@@ -0,0 +1,68 @@
+package simu.model;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Live load of the service points of a running engine, for a viewer on another thread.
+ * <p>
+ * Each {@link ServicePoint} publishes the number of passengers on its lines whenever it changes,
+ * and counts the passengers that leave it. The engine thread is the only writer; it stores with
+ * release semantics and does not wait, so publishing costs a plain store per queue change. A
+ * viewer reads the values at its own pace, e.g. once per frame, and the cost of reading depends on
+ * the number of stations only, not on the number of passengers.
+ * </p>
+ */
+public class StationLoad {
+    private final EventType[] stations;
+    private final AtomicIntegerArray queued;
+    private final AtomicLongArray departed;
+
+    /**
+     * @param stations service event type of each station, in station order
+     */
+    StationLoad(EventType[] stations) {
+        this.stations = stations.clone();
+        this.queued = new AtomicIntegerArray(stations.length);
+        this.departed = new AtomicLongArray(stations.length);
+    }
+
+    /**
+     * @return number of stations
+     */
+    public int size() {
+        return stations.length;
+    }
+
+    /**
+     * @param station station index
+     * @return service event type identifying the station, e.g. {@link EventType#SECURITY}
+     */
+    public EventType getStation(int station) {
+        return stations[station];
+    }
+
+    /**
+     * @param station station index
+     * @return passengers on all lines of the station, including those in service
+     */
+    public int getQueued(int station) {
+        return queued.get(station);
+    }
+
+    /**
+     * @param station station index
+     * @return passengers that have left the station since the start of the run
+     */
+    public long getDeparted(int station) {
+        return departed.get(station);
+    }
+
+    void setQueued(int station, int passengers) {
+        queued.lazySet(station, passengers);
+    }
+
+    void departed(int station) {
+        departed.lazySet(station, departed.get(station) + 1); // single writer
+    }
+}
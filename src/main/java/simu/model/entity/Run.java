@@ -1,26 +1,33 @@
 package simu.model.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * JPA entity representing a single simulation run's line/station counts.
- * The entity is mapped to table {@code run}. The primary key {@link #id} is generated using
- * {@link GenerationType#IDENTITY} and will be {@code null} until the instance is persisted.
+ * The entity is mapped to table {@code run}. The primary key {@link #id} is taken from the
+ * {@code run_seq} sequence and will be {@code null} until the instance is persisted.
  * All other fields are non-null integer counters describing how many lines/servers a run uses
  * for each processing stage (check-in, luggage drop, security, passport control, and gate).
+ * Runs are kept in the second-level cache.
  * @author Elias Rinne
  */
 
 @Entity
 @Table(name = "run")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Run {
 
     /**
-     * Surrogate primary key generated by the database (IDENTITY strategy).
+     * Surrogate primary key from the {@code run_seq} sequence. Ids are allocated in blocks of 50,
+     * so unlike IDENTITY columns the inserts can be sent in JDBC batches.
      * Will be {@code null} until the entity has been persisted.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "run_seq")
+    @SequenceGenerator(name = "run_seq", sequenceName = "run_seq", allocationSize = 50)
     private Integer id;
 
     /** Number of check-in queues/servers configured for this run. */
@@ -95,6 +102,15 @@ public class Run {
         return id;
     }
 
+    /**
+     * Sets the identifier; for stores that assign ids themselves instead of the sequence.
+     *
+     * @param id identifier
+     */
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
     /**
      * Returns the number of check-in queues/servers configured for this run.
      *
@@ -2,22 +2,31 @@ package simu.model.entity;
 
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * JPA entity that stores aggregated queue statistics for a single simulation {@link Run}.
  * Mapped to the table {@code run_statistics}. Each row is associated 1:1 with a {@link Run}
  * via a foreign key column {@code run_id} (unique, non-null). All metrics are stored as either
  * integer maxima or double-precision averages per queue type.
+ * Statistics are kept in the second-level cache.
  * @author Elias Rinne
  */
 
 @Entity
 @Table(name = "run_statistics")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class RunStatistics {
 
-    /** Database-generated surrogate key (IDENTITY); {@code null} until persisted. */
+    /**
+     * Surrogate key from the {@code run_statistics_seq} sequence, allocated in blocks of 50 so
+     * inserts can be batched; {@code null} until persisted.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "run_statistics_seq")
+    @SequenceGenerator(name = "run_statistics_seq", sequenceName = "run_statistics_seq", allocationSize = 50)
     private Integer id;
 
     /**
@@ -154,6 +163,17 @@ public class RunStatistics {
      */
     public Integer getId() { return id; }
 
+    /**
+     * Sets the identifier; for stores that assign ids themselves instead of the sequence.
+     * @param id identifier
+     */
+    public void setId(Integer id) { this.id = id; }
+
+    /**
+     * @return owning run
+     */
+    public Run getRun() { return run; }
+
     /**
      * @return maximum observed length of the check-in queue
      */
@@ -3,7 +3,7 @@ package view;
 public interface ISimulatorUI {
 	// The Controller needs input which is passed to the Engine
 	public double getTime();
-	public long getDelay();
+	public double getTimeScale();	// wall-clock ms per simulated time unit, 0 for unlimited speed
 	
 	// Controller gives Engine produced results to the UI
 	public void setEndingTime(double time);
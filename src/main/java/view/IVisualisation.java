@@ -1,6 +1,7 @@
 package view;
 
 import simu.model.EventType;
+import simu.model.StationLoad;
 
 
 
@@ -23,6 +24,17 @@ public interface IVisualisation {
      * a counter or draw an entry animation.
      */
 	public void newCustomer();
+    /**
+     * Signals that several customers have appeared since the last frame. The default calls
+     * {@link #newCustomer()} for each of them; implementations may render the total only once.
+     *
+     * @param count number of new customers
+     */
+    default void newCustomers(int count) {
+        for (int i = 0; i < count; i++) {
+            newCustomer();
+        }
+    }
     /**
      * Animates a new customer entering the check-in area.
      * Implementations define the precise start/end coordinates.
@@ -80,5 +92,13 @@ public interface IVisualisation {
      * @param duration base duration in seconds
      */
     public void setDuration(int duration);
+    /**
+     * Gives the live load of the service points of the simulation that is about to run.
+     * Implementations may draw it instead of single passengers when there are too many of them
+     * to follow. The default ignores it.
+     * @param load queue lengths and departures per station, updated by the engine thread
+     */
+    default void setStationLoad(StationLoad load) {
+    }
 }
 
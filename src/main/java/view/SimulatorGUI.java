@@ -24,15 +24,17 @@ public class SimulatorGUI extends Application implements ISimulatorUI {
 
     // UI Components:
     @FXML private TextField time;
-    @FXML private TextField delay;
+    @FXML private TextField timeScale;
     @FXML private Label results;
     @FXML private Label timeLabel;
-    @FXML private Label delayLabel;
+    @FXML private Label timeScaleLabel;
     @FXML private Label resultLabel;
     @FXML private Button startButton;
     @FXML private Button slowButton;
     @FXML private Button speedUpButton;
     @FXML private Button resetButton;
+    @FXML private Button pauseButton;
+    @FXML private Button stepButton;
     @FXML private StackPane animationPane;
 
     // Spinners for line counts (add matching fx:id entries to GUI.fxml)
@@ -113,9 +115,23 @@ public class SimulatorGUI extends Application implements ISimulatorUI {
         startButton.setOnAction(event -> {
             controller.startSimulation();
             startButton.setDisable(true);
+            setRunControls(true);
         });
         slowButton.setOnAction(e -> controller.decreaseSpeed());
         speedUpButton.setOnAction(e -> controller.increaseSpeed());
+        // the label follows what the controller reports, not the clicks
+        setRunControls(false);
+        if (pauseButton != null) {
+            pauseButton.setOnAction(e -> pauseButton.setText(controller.togglePause() ? "Resume" : "Pause"));
+        }
+        if (stepButton != null) {
+            stepButton.setOnAction(e -> {
+                boolean paused = controller.stepSimulation();
+                if (pauseButton != null) {
+                    pauseButton.setText(paused ? "Resume" : "Pause");
+                }
+            });
+        }
 
         // Reset button: call controller.resetSimulation() and re-enable Start
         if (resetButton != null) {
@@ -131,10 +147,25 @@ public class SimulatorGUI extends Application implements ISimulatorUI {
         if (startButton != null) {
             startButton.setDisable(false);
         }
+        setRunControls(false);
+    }
+
+    /**
+     * Enables Pause and Step only while a run is active, with Pause showing its initial label.
+     */
+    private void setRunControls(boolean running) {
+        if (pauseButton != null) {
+            pauseButton.setText("Pause");
+            pauseButton.setDisable(!running);
+        }
+        if (stepButton != null) {
+            stepButton.setDisable(!running);
+        }
     }
 
     @FXML
     private void showResults() {
+        setRunControls(false); // a run in progress is cancelled
         controller.showResults();
     }
 
@@ -145,8 +176,8 @@ public class SimulatorGUI extends Application implements ISimulatorUI {
     }
 
     @Override
-    public long getDelay() {
-        return Long.parseLong(delay.getText());
+    public double getTimeScale() {
+        return Double.parseDouble(timeScale.getText());
     }
 
     @Override
@@ -165,6 +196,7 @@ public class SimulatorGUI extends Application implements ISimulatorUI {
         Platform.runLater(() -> {
             startButton.setText("Restart");
             startButton.setDisable(false);
+            setRunControls(false);
         });
     }
 
@@ -0,0 +1,188 @@
+package view;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Paint;
+
+import java.util.Arrays;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Draws the passengers moving between service points, all with one {@link AnimationTimer}.
+ * <p>
+ * A passenger in flight is a straight leg from a start to an end point; the legs are kept in
+ * parallel primitive arrays (start, displacement, start time) and nothing is allocated per
+ * passenger or per frame. On every pulse the region drawn in the previous frame is cleared with
+ * one {@code clearRect}, then every leg is drawn at its current position with the fill set once,
+ * and the bounding box of what was drawn becomes the next frame's dirty region. A leg that has
+ * reached its end is drawn there once more and then removed by moving the last leg into its
+ * slot. The timer stops when nothing is in flight and the canvas is clean, so an idle
+ * visualisation costs nothing.
+ * </p>
+ * <p>
+ * Something drawn under the passengers, such as the customer counter, is registered with
+ * {@link #setUnderlay(double, double, double, double, Runnable)} and redrawn whenever the cleared
+ * region overlaps it. All methods are called on the JavaFX thread.
+ * </p>
+ */
+class SpriteRenderer {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final GraphicsContext gc;
+    private final double radius;
+    private final Paint fill;
+    private final DoubleSupplier legSeconds;
+
+    // legs in flight: start point, displacement to the end point, start time (-1 until the first frame)
+    private double[] x0 = new double[INITIAL_CAPACITY];
+    private double[] y0 = new double[INITIAL_CAPACITY];
+    private double[] dx = new double[INITIAL_CAPACITY];
+    private double[] dy = new double[INITIAL_CAPACITY];
+    private long[] start = new long[INITIAL_CAPACITY];
+    private int count;
+
+    // region drawn in the previous frame
+    private boolean dirty;
+    private double dirtyMinX, dirtyMinY, dirtyMaxX, dirtyMaxY;
+
+    private double underlayX, underlayY, underlayW, underlayH;
+    private Runnable underlay;
+
+    private boolean running;
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            render(now);
+        }
+    };
+
+    /**
+     * @param gc graphics context of the canvas to draw on
+     * @param radius radius of a passenger in pixels
+     * @param fill colour of a passenger
+     * @param legSeconds how long a leg takes, in seconds; read on every frame
+     */
+    SpriteRenderer(GraphicsContext gc, double radius, Paint fill, DoubleSupplier legSeconds) {
+        this.gc = gc;
+        this.radius = radius;
+        this.fill = fill;
+        this.legSeconds = legSeconds;
+    }
+
+    /**
+     * Starts a passenger on a leg; it is first drawn on the next frame.
+     * @param startX start x in canvas pixels
+     * @param startY start y in canvas pixels
+     * @param endX end x in canvas pixels
+     * @param endY end y in canvas pixels
+     */
+    void add(double startX, double startY, double endX, double endY) {
+        if (count == start.length) {
+            int capacity = count * 2;
+            x0 = Arrays.copyOf(x0, capacity);
+            y0 = Arrays.copyOf(y0, capacity);
+            dx = Arrays.copyOf(dx, capacity);
+            dy = Arrays.copyOf(dy, capacity);
+            start = Arrays.copyOf(start, capacity);
+        }
+        x0[count] = startX;
+        y0[count] = startY;
+        dx[count] = endX - startX;
+        dy[count] = endY - startY;
+        start[count] = -1;
+        count++;
+        if (!running) {
+            running = true;
+            timer.start();
+        }
+    }
+
+    /**
+     * Registers what is drawn under the passengers in a rectangle, to be redrawn when the
+     * passengers are erased from it.
+     * @param x left edge
+     * @param y top edge
+     * @param w width
+     * @param h height
+     * @param draw draws the rectangle
+     */
+    void setUnderlay(double x, double y, double w, double h, Runnable draw) {
+        underlayX = x;
+        underlayY = y;
+        underlayW = w;
+        underlayH = h;
+        underlay = draw;
+    }
+
+    /** @return number of passengers in flight */
+    int getInFlight() {
+        return count;
+    }
+
+    /**
+     * Removes every passenger; they are erased on the next frame.
+     */
+    void clear() {
+        count = 0;
+    }
+
+    private void render(long now) {
+        if (dirty) {
+            gc.clearRect(dirtyMinX, dirtyMinY, dirtyMaxX - dirtyMinX, dirtyMaxY - dirtyMinY);
+            if (underlay != null && dirtyMinX < underlayX + underlayW && dirtyMaxX > underlayX
+                    && dirtyMinY < underlayY + underlayH && dirtyMaxY > underlayY) {
+                underlay.run();
+            }
+            dirty = false;
+        }
+        if (count == 0) {
+            running = false;
+            timer.stop();
+            return;
+        }
+
+        double nanosPerLeg = legSeconds.getAsDouble() * 1e9;
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        double d = 2 * radius;
+        gc.setFill(fill);
+        int i = 0;
+        while (i < count) {
+            if (start[i] < 0) {
+                start[i] = now;
+            }
+            double t = nanosPerLeg > 0 ? (now - start[i]) / nanosPerLeg : 1;
+            boolean arrived = t >= 1;
+            if (arrived) {
+                t = 1;
+            }
+            double x = x0[i] + dx[i] * t - radius;
+            double y = y0[i] + dy[i] * t - radius;
+            gc.fillOval(x, y, d, d);
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x + d);
+            maxY = Math.max(maxY, y + d);
+            if (arrived) {
+                remove(i); // the last leg moves into slot i and is drawn next
+            } else {
+                i++;
+            }
+        }
+        // one pixel margin for antialiasing, as the per-passenger timers had
+        dirty = true;
+        dirtyMinX = minX - 1;
+        dirtyMinY = minY - 1;
+        dirtyMaxX = maxX + 1;
+        dirtyMaxY = maxY + 1;
+    }
+
+    private void remove(int i) {
+        int last = --count;
+        x0[i] = x0[last];
+        y0[i] = y0[last];
+        dx[i] = dx[last];
+        dy[i] = dy[last];
+        start[i] = start[last];
+    }
+}
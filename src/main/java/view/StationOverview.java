@@ -0,0 +1,132 @@
+package view;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.RadialGradient;
+import javafx.scene.paint.Stop;
+import javafx.scene.text.Font;
+import simu.model.EventType;
+import simu.model.StationLoad;
+
+/**
+ * Aggregate view of the airport for when there are too many passengers to draw one by one.
+ * <p>
+ * For every station it draws a heat spot whose size and opacity follow the station's recent
+ * throughput, relative to the busiest station, and a bar with the number of passengers on its
+ * lines. Everything is read from a {@link StationLoad}, so a frame costs the same for ten or ten
+ * thousand passengers. Throughput is the departures per second of wall-clock time, smoothed over
+ * about {@value #SMOOTHING_SECONDS} s so the heat does not flicker.
+ * </p>
+ */
+class StationOverview {
+    private static final double SMOOTHING_SECONDS = 1.0;
+    private static final double MAX_BAR = 90;
+    private static final double BAR_WIDTH = 14;
+    private static final Font LABEL_FONT = new Font(12);
+    private static final Color BAR = Color.rgb(30, 70, 200, 0.85);
+    private static final Color HEAT = Color.rgb(255, 60, 0);
+    private static final int HEAT_LEVELS = 32;
+    // one gradient per heat level, proportional to the oval it fills, so drawing allocates nothing
+    private static final RadialGradient[] HEAT_PALETTE = new RadialGradient[HEAT_LEVELS + 1];
+
+    static {
+        for (int level = 1; level <= HEAT_LEVELS; level++) {
+            double heat = (double) level / HEAT_LEVELS;
+            HEAT_PALETTE[level] = new RadialGradient(0, 0, 0.5, 0.5, 0.5, true, CycleMethod.NO_CYCLE,
+                    new Stop(0, HEAT.deriveColor(0, 1, 1, 0.65 * heat)),
+                    new Stop(1, HEAT.deriveColor(0, 1, 1, 0)));
+        }
+    }
+
+    // station positions on the background, the ends of the animated legs, by EventType ordinal
+    private static final double[] X = new double[EventType.values().length];
+    private static final double[] Y = new double[EventType.values().length];
+
+    static {
+        position(EventType.CHECK_IN, 315, 278);
+        position(EventType.LUGGAGE_DROP, 460, 510);
+        position(EventType.LUGGAGE_DROP_PRIORITY, 430, 48);
+        position(EventType.SECURITY, 650, 435);
+        position(EventType.SECURITY_PRIORITY, 648, 145);
+        position(EventType.PASSPORT_CONTROL, 917, 435);
+        position(EventType.PASSPORT_CONTROL_PRIORITY, 917, 145);
+        position(EventType.GATE, 1030, 290);
+    }
+
+    private static void position(EventType station, double x, double y) {
+        X[station.ordinal()] = x;
+        Y[station.ordinal()] = y;
+    }
+
+    private StationLoad load;
+    private long[] lastDeparted;
+    private double[] rate;
+    private long lastFrame = -1;
+
+    /**
+     * @param load load to draw from now on
+     */
+    void setLoad(StationLoad load) {
+        this.load = load;
+        this.lastDeparted = new long[load.size()];
+        this.rate = new double[load.size()];
+        for (int i = 0; i < load.size(); i++) {
+            lastDeparted[i] = load.getDeparted(i);
+        }
+        lastFrame = -1;
+    }
+
+    /** @return whether there is a load to draw */
+    boolean hasLoad() {
+        return load != null;
+    }
+
+    /**
+     * Draws one frame. The caller has cleared the area.
+     * @param gc where to draw
+     * @param now frame time in nanoseconds
+     */
+    void draw(GraphicsContext gc, long now) {
+        if (load == null) {
+            return;
+        }
+        int n = load.size();
+        double dt = lastFrame < 0 ? 0 : (now - lastFrame) / 1e9;
+        lastFrame = now;
+        double keep = dt > 0 ? Math.exp(-dt / SMOOTHING_SECONDS) : 1;
+        double maxRate = 0;
+        for (int i = 0; i < n; i++) {
+            long departed = load.getDeparted(i);
+            if (dt > 0) {
+                rate[i] = keep * rate[i] + (1 - keep) * (departed - lastDeparted[i]) / dt;
+            }
+            lastDeparted[i] = departed;
+            maxRate = Math.max(maxRate, rate[i]);
+        }
+
+        for (int i = 0; i < n; i++) {
+            int level = maxRate > 0 ? (int) Math.round(rate[i] / maxRate * HEAT_LEVELS) : 0;
+            if (level > 0) {
+                int s = load.getStation(i).ordinal();
+                double r = 25 + 45 * level / (double) HEAT_LEVELS;
+                gc.setFill(HEAT_PALETTE[level]);
+                gc.fillOval(X[s] - r, Y[s] - r, 2 * r, 2 * r);
+            }
+        }
+
+        gc.setFont(LABEL_FONT);
+        for (int i = 0; i < n; i++) {
+            int s = load.getStation(i).ordinal();
+            int queued = load.getQueued(i);
+            // logarithmic, so both a handful and thousands of passengers are readable
+            double h = Math.min(MAX_BAR, 15 * Math.log1p(queued));
+            double x = X[s] + 20;
+            double bottom = Y[s] + 30;
+            gc.setFill(BAR);
+            gc.fillRect(x, bottom - h, BAR_WIDTH, h);
+            gc.setFill(Color.BLACK);
+            gc.fillText(Integer.toString(queued), x, bottom - h - 3);
+        }
+    }
+}
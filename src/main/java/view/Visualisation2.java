@@ -6,11 +6,17 @@ import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import simu.model.EventType;
+import simu.model.StationLoad;
 
 /**
  * Canvas-based visualization component that animates passenger movements between
  * service points in the airport simulation. The class draws a small "ball" (a filled oval)
  * that travels along straight line segments between pre-defined coordinates.
+ * All balls are moved and drawn by one {@link SpriteRenderer}, so the cost of a frame does not
+ * grow with a timer per passenger.
+ * When more passengers are in flight than the detail threshold, the balls are replaced by a
+ * {@link StationOverview} of queue bars and throughput heat drawn from the {@link StationLoad} of the
+ * engine, whose cost does not depend on the number of passengers. It switches back below half the threshold.
  * Threading: All public methods are intended to be called from the JavaFX Application Thread.
  * @author Elias Rinne
  */
@@ -28,6 +34,35 @@ public class Visualisation2 extends Canvas implements IVisualisation {
      */
     private final static double ballRadius = 5.0;  // animation ball size
 
+    private static final Font COUNTER_FONT = new Font(20);
+
+    /**
+     * Default number of passengers in flight above which the station overview replaces the balls;
+     * the system property {@code airport.visualisation.detailThreshold} overrides it.
+     */
+    public static final int DEFAULT_DETAIL_THRESHOLD = 400;
+
+    private final SpriteRenderer sprites;
+    private final StationOverview overview = new StationOverview();
+    private int detailThreshold = Integer.getInteger("airport.visualisation.detailThreshold", DEFAULT_DETAIL_THRESHOLD);
+    private boolean aggregated;
+
+    // start times of the legs of the last `duration` seconds, oldest first, as a ring buffer
+    private long[] legStarts = new long[256];
+    private int legHead, legCount;
+
+    private final AnimationTimer overviewTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            updateDetail(now);
+            if (aggregated) {
+                gc.clearRect(0, 0, getWidth(), getHeight());
+                overview.draw(gc, now);
+                drawCustomerCount();
+            }
+        }
+    };
+
     /**
      * Creates a visualization canvas with the given dimensions.
      *
@@ -38,11 +73,23 @@ public class Visualisation2 extends Canvas implements IVisualisation {
     public Visualisation2(int w, int h) {
         super(w, h);
         gc = this.getGraphicsContext2D();
+        sprites = new SpriteRenderer(gc, ballRadius, Color.RED, () -> duration);
+        sprites.setUnderlay(0, 0, 350, 100, this::drawCustomerCount);
         clearDisplay();
     }
 
+    /**
+     * Prepares the canvas for the next run: removes the balls, stops the overview and forgets the
+     * legs counted for switching to it, so a new run starts with balls whatever the last one showed.
+     */
+    @Override
     public void clearDisplay() {
-
+        overviewTimer.stop();
+        aggregated = false;
+        legHead = 0;
+        legCount = 0;
+        sprites.clear();
+        gc.clearRect(0, 0, getWidth(), getHeight());
     }
     /**
      * Increments the customer counter and renders the updated value in the
@@ -50,12 +97,24 @@ public class Visualisation2 extends Canvas implements IVisualisation {
      * @author Elias Rinne
      */
     public void newCustomer() {
-        customerCount++;
+        newCustomers(1);
+    }
+
+    /**
+     * Adds several customers to the counter and renders the new value once.
+     * @param count number of new customers
+     */
+    @Override
+    public void newCustomers(int count) {
+        customerCount += count;
+        drawCustomerCount();
+    }
 
+    private void drawCustomerCount() {
         gc.setFill(Color.WHITE);					// first erase old text
         gc.fillRect(0,0, 350, 100);
         gc.setFill(Color.RED);						// then write new text
-        gc.setFont(new Font(20));
+        gc.setFont(COUNTER_FONT);
         gc.fillText("Customer " + customerCount, 20, 20);
     }
     /**
@@ -70,35 +129,7 @@ public class Visualisation2 extends Canvas implements IVisualisation {
         //end points
         double coordy0 = 280, coordy1 = 280;
 
-        // 0..1
-        AnimationTimer checkinTimer = new AnimationTimer() {
-            long startTime = -1;
-            double prevX = coordx0, prevY = coordy0;
-            double x = coordx0, y = coordy0;
-
-            @Override
-            public void handle(long now) {
-                if (startTime < 0) startTime = now;
-                double t = (now - startTime) / 1e9 / duration; // 0..1
-                if (t > 1) t = 1;
-
-                gc.clearRect(prevX - ballRadius - 1, prevY - ballRadius - 1,
-                        2 * ballRadius + 2, 2 * ballRadius + 2);
-                x = coordx0 + (coordx1 - coordx0) * t;
-                y = coordy0 + (coordy1 - coordy0) * t;
-
-                gc.setFill(Color.RED);
-                gc.fillOval(x - ballRadius, y - ballRadius, 2 * ballRadius, 2 * ballRadius);
-
-                prevX = x;
-                prevY = y;
-
-                if (t >= 1) {
-                    stop();
-                }
-            }
-        };
-        checkinTimer.start();
+        startLeg(coordx0, coordy0, coordx1, coordy1);
     }
 
     /**
@@ -124,35 +155,7 @@ public class Visualisation2 extends Canvas implements IVisualisation {
             coordy1 = 495;
         }
 
-        // 0..1
-        AnimationTimer luggageDropTimer = new AnimationTimer() {
-            long startTime = -1;
-            double prevX = coordx0, prevY = coordy0;
-            double x = coordx0, y = coordy0;
-
-            @Override
-            public void handle(long now) {
-                if (startTime < 0) startTime = now;
-                double t = (now - startTime) / 1e9 / duration; // 0..1
-                if (t > 1) t = 1;
-
-                gc.clearRect(prevX - ballRadius - 1, prevY - ballRadius - 1,
-                        2 * ballRadius + 2, 2 * ballRadius + 2);
-                x = coordx0 + (coordx1 - coordx0) * t;
-                y = coordy0 + (coordy1 - coordy0) * t;
-
-                gc.setFill(Color.RED);
-                gc.fillOval(x - ballRadius, y - ballRadius, 2 * ballRadius, 2 * ballRadius);
-
-                prevX = x;
-                prevY = y;
-
-                if (t >= 1) {
-                    stop();
-                }
-            }
-        };
-        luggageDropTimer.start();
+        startLeg(coordx0, coordy0, coordx1, coordy1);
     }
 
     /**
@@ -200,35 +203,7 @@ public class Visualisation2 extends Canvas implements IVisualisation {
             coordy1 = 435;
         }
 
-        // 0..1
-        AnimationTimer securityTimer = new AnimationTimer() {
-            long startTime = -1;
-            double prevX = coordx0, prevY = coordy0;
-            double x = coordx0, y = coordy0;
-
-            @Override
-            public void handle(long now) {
-                if (startTime < 0) startTime = now;
-                double t = (now - startTime) / 1e9 / duration; // 0..1
-                if (t > 1) t = 1;
-
-                gc.clearRect(prevX - ballRadius - 1, prevY - ballRadius - 1,
-                        2 * ballRadius + 2, 2 * ballRadius + 2);
-                x = coordx0 + (coordx1 - coordx0) * t;
-                y = coordy0 + (coordy1 - coordy0) * t;
-
-                gc.setFill(Color.RED);
-                gc.fillOval(x - ballRadius, y - ballRadius, 2 * ballRadius, 2 * ballRadius);
-
-                prevX = x;
-                prevY = y;
-
-                if (t >= 1) {
-                    stop();
-                }
-            }
-        };
-        securityTimer.start();
+        startLeg(coordx0, coordy0, coordx1, coordy1);
 
     }
 
@@ -271,34 +246,7 @@ public class Visualisation2 extends Canvas implements IVisualisation {
             coordy1 = 435;
         }
 
-        AnimationTimer passportTimer = new AnimationTimer() {
-            long startTime = -1;
-            double prevX = coordx0, prevY = coordy0;
-            double x = coordx0, y = coordy0;
-
-            @Override
-            public void handle(long now) {
-                if (startTime < 0) startTime = now;
-                double t = (now - startTime) / 1e9 / duration; // 0..1
-                if (t > 1) t = 1;
-
-                gc.clearRect(prevX - ballRadius - 1, prevY - ballRadius - 1,
-                        2 * ballRadius + 2, 2 * ballRadius + 2);
-                x = coordx0 + (coordx1 - coordx0) * t;
-                y = coordy0 + (coordy1 - coordy0) * t;
-
-                gc.setFill(Color.RED);
-                gc.fillOval(x - ballRadius, y - ballRadius, 2 * ballRadius, 2 * ballRadius);
-
-                prevX = x;
-                prevY = y;
-
-                if (t >= 1) {
-                    stop();
-                }
-            }
-        };
-        passportTimer.start();
+        startLeg(coordx0, coordy0, coordx1, coordy1);
 
     }
 
@@ -345,36 +293,74 @@ public class Visualisation2 extends Canvas implements IVisualisation {
         coordy1 = 290;
 
 
-        AnimationTimer gateTimer = new AnimationTimer() {
-            long startTime = -1;
-            double prevX = coordx0, prevY = coordy0;
-            double x = coordx0, y = coordy0;
+        startLeg(coordx0, coordy0, coordx1, coordy1);
 
-            @Override
-            public void handle(long now) {
-                if (startTime < 0) startTime = now;
-                double t = (now - startTime) / 1e9 / duration; // 0..1
-                if (t > 1) t = 1;
-
-                gc.clearRect(prevX - ballRadius - 1, prevY - ballRadius - 1,
-                        2 * ballRadius + 2, 2 * ballRadius + 2);
-                x = coordx0 + (coordx1 - coordx0) * t;
-                y = coordy0 + (coordy1 - coordy0) * t;
-
-                gc.setFill(Color.RED);
-                gc.fillOval(x - ballRadius, y - ballRadius, 2 * ballRadius, 2 * ballRadius);
+    }
+    /**
+     * Sets the number of passengers in flight above which the station overview is drawn instead of
+     * single passengers.
+     *
+     * @param threshold passengers in flight
+     */
+    public void setDetailThreshold(int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("threshold must be > 0");
+        }
+        detailThreshold = threshold;
+    }
 
-                prevX = x;
-                prevY = y;
+    /**
+     * Takes the station load of the next run for the overview.
+     *
+     * @param load queue lengths and departures per station
+     */
+    @Override
+    public void setStationLoad(StationLoad load) {
+        overview.setLoad(load);
+    }
 
-                if (t >= 1) {
-                    stop();
-                }
+    /**
+     * Starts a ball on a leg, unless the overview is shown; counts the leg either way.
+     */
+    private void startLeg(double x0, double y0, double x1, double y1) {
+        long now = System.nanoTime();
+        if (legCount == legStarts.length) {
+            long[] grown = new long[legStarts.length * 2];
+            for (int i = 0; i < legCount; i++) {
+                grown[i] = legStarts[(legHead + i) % legStarts.length];
             }
-        };
-        gateTimer.start();
+            legStarts = grown;
+            legHead = 0;
+        }
+        legStarts[(legHead + legCount) % legStarts.length] = now;
+        legCount++;
+        updateDetail(now);
+        if (!aggregated) {
+            sprites.add(x0, y0, x1, y1);
+        }
+    }
 
+    /**
+     * Switches between balls and the overview by the number of legs started within one leg duration.
+     */
+    private void updateDetail(long now) {
+        long oldest = now - (long) (duration * 1e9);
+        while (legCount > 0 && legStarts[legHead] < oldest) {
+            legHead = (legHead + 1) % legStarts.length;
+            legCount--;
+        }
+        if (!aggregated && legCount > detailThreshold && overview.hasLoad()) {
+            aggregated = true;
+            sprites.clear();
+            overviewTimer.start();
+        } else if (aggregated && legCount < detailThreshold / 2) {
+            aggregated = false;
+            overviewTimer.stop();
+            gc.clearRect(0, 0, getWidth(), getHeight());
+            drawCustomerCount();
+        }
     }
+
     /**
      * Resets the in-memory customer counter used for display.
      * @author Elias Rinne
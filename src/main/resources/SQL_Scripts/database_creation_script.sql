@@ -5,6 +5,12 @@ USE airport_simulator;
 
 DROP TABLE IF EXISTS run_statistics;
 DROP TABLE IF EXISTS run;
+DROP SEQUENCE IF EXISTS run_statistics_seq;
+DROP SEQUENCE IF EXISTS run_seq;
+
+-- ids are allocated by the application in blocks of 50, so inserts can be batched
+CREATE SEQUENCE run_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE run_statistics_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE run (
     id INT NOT NULL AUTO_INCREMENT,
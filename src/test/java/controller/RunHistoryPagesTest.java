@@ -0,0 +1,148 @@
+package controller;
+
+import org.junit.jupiter.api.Test;
+import simu.model.entity.Run;
+import simu.model.entity.RunStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RunHistoryPages}.
+ * <p>Checks that pages are loaded on demand and only once, that the least recently used pages
+ * are evicted and that loads from before a clear are discarded, with executors that queue the
+ * tasks so the test decides when a load completes.</p>
+ */
+class RunHistoryPagesTest {
+
+    /** Runs queued tasks when told to. */
+    private static class ManualExecutor implements Executor {
+        final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+    }
+
+    /** {@code afterRunId:skip} of every load */
+    private final List<String> loads = new ArrayList<>();
+    private final List<Integer> loadedPages = new ArrayList<>();
+    private final ManualExecutor background = new ManualExecutor();
+    private final ManualExecutor owner = new ManualExecutor();
+
+    private RunHistoryPages pages(int maxPages) {
+        // 95 runs with ids 1..95, so the run with id n is row n - 1
+        return new RunHistoryPages(10, maxPages, (afterRunId, skip, max) -> {
+            loads.add(afterRunId + ":" + skip);
+            List<RunStatistics> rows = new ArrayList<>();
+            for (int i = afterRunId + skip; i < afterRunId + skip + max && i < 95; i++) {
+                Run run = new Run(i + 1, 0, 0, 0, 0, 0, 0, 0); // luggage drop count marks the row
+                run.setId(i + 1);
+                rows.add(new RunStatistics(run, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0));
+            }
+            return rows;
+        }, background, owner, loadedPages::add);
+    }
+
+    private void completeLoads() {
+        background.runAll();
+        owner.runAll();
+    }
+
+    @Test
+    void loadsAPageOnDemandAndOnlyOnce() {
+        RunHistoryPages pages = pages(4);
+        assertNull(pages.get(23));
+        assertNull(pages.get(27)); // same page, already requested
+        completeLoads();
+        assertEquals(List.of("0:20"), loads);
+        assertEquals(List.of(2), loadedPages);
+        assertEquals(24, pages.get(23).getRun().getLuggageDropCount());
+        assertEquals(28, pages.get(27).getRun().getLuggageDropCount());
+        assertEquals(List.of("0:20"), loads);
+    }
+
+    @Test
+    void lastPageMayBeShort() {
+        RunHistoryPages pages = pages(4);
+        pages.get(94);
+        completeLoads();
+        assertEquals(95, pages.get(94).getRun().getLuggageDropCount());
+        assertNull(pages.get(97));
+        completeLoads();
+        assertEquals(List.of("0:90"), loads);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedPages() {
+        RunHistoryPages pages = pages(2);
+        pages.get(0);
+        pages.get(10);
+        completeLoads();
+        pages.get(0);   // page 1 is now the eldest
+        pages.get(20);
+        completeLoads();
+        assertEquals(2, pages.cachedPages());
+        assertNotNull(pages.get(0));
+        assertNull(pages.get(10));
+        completeLoads();
+        // page 1 was requested before page 0 had arrived; later pages seek past a loaded page,
+        // also one that has been evicted since
+        assertEquals(List.of("0:0", "0:10", "20:0", "10:0"), loads);
+    }
+
+    @Test
+    void discardsLoadsRequestedBeforeClear() {
+        RunHistoryPages pages = pages(4);
+        pages.get(0);
+        background.runAll();
+        pages.clear();
+        owner.runAll();
+        assertEquals(0, pages.cachedPages());
+        assertTrue(loadedPages.isEmpty());
+        assertNull(pages.get(0)); // requested again
+        completeLoads();
+        assertNotNull(pages.get(0));
+    }
+
+    @Test
+    void doesNotRetryAFailedPageUntilCleared() {
+        List<Integer> attempts = new ArrayList<>();
+        RunHistoryPages pages = new RunHistoryPages(10, 4, (afterRunId, skip, max) -> {
+            attempts.add(skip);
+            throw new IllegalStateException("database down");
+        }, background, owner, loadedPages::add);
+        pages.get(0);
+        completeLoads();
+        assertNull(pages.get(0));
+        completeLoads();
+        assertEquals(List.of(0), attempts);
+        pages.clear();
+        pages.get(0);
+        completeLoads();
+        assertEquals(List.of(0, 0), attempts);
+    }
+
+    @Test
+    void seeksFromTheNearestLoadedPage() {
+        RunHistoryPages pages = pages(4);
+        pages.get(15);
+        completeLoads();
+        pages.get(55);  // jump: skips only the pages between page 1 and page 5
+        pages.get(25);  // next page in order: no skip at all
+        completeLoads();
+        assertEquals(List.of("0:10", "20:30", "20:0"), loads);
+        assertEquals(56, pages.get(55).getRun().getLuggageDropCount());
+        assertEquals(26, pages.get(25).getRun().getLuggageDropCount());
+    }
+}
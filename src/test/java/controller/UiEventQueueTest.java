@@ -0,0 +1,78 @@
+package controller;
+
+import org.junit.jupiter.api.Test;
+import simu.model.EventType;
+import view.IVisualisation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link UiEventQueue}.
+ * <p>Checks the order of drained animations, customer aggregation, the per-pulse budget and
+ * dropping on overflow, using a visualisation that only records the calls.</p>
+ */
+class UiEventQueueTest {
+
+    /** Records the calls instead of drawing. */
+    private static class RecordingVisualisation implements IVisualisation {
+        final List<String> calls = new ArrayList<>();
+        int customers;
+
+        @Override public void clearDisplay() { }
+        @Override public void newCustomer() { customers++; }
+        @Override public void newCustomers(int count) { customers += count; calls.add("customers " + count); }
+        @Override public void newCustomerCheckin() { calls.add("checkin"); }
+        @Override public void newCustomerLuggageDrop(double x, double y, boolean p) { calls.add("luggage " + x + " " + y + " " + p); }
+        @Override public void customerAnimationToSecurity(boolean p, EventType from) { calls.add("security " + p + " " + from); }
+        @Override public void customerAnimationToPassport(boolean p, EventType from) { calls.add("passport " + p + " " + from); }
+        @Override public void customerAnimationToGate(EventType from) { calls.add("gate " + from); }
+        @Override public void resetCustomerCount() { }
+        @Override public void scaleAnimationSpeed(double multiplier) { }
+        @Override public void setDuration(int duration) { }
+    }
+
+    @Test
+    void drainsInOrderAndAggregatesCustomers() {
+        UiEventQueue queue = new UiEventQueue(16);
+        RecordingVisualisation vis = new RecordingVisualisation();
+
+        queue.offerCustomer();
+        queue.offerCheckIn();
+        queue.offerCustomer();
+        queue.offerLuggageDrop(125, 280, true);
+        queue.offerSecurity(false, EventType.LUGGAGE_DROP);
+        queue.offerPassport(true, EventType.SECURITY_PRIORITY);
+        queue.offerGate(EventType.PASSPORT_CONTROL);
+        assertEquals(5, queue.getBacklog());
+
+        assertEquals(5, queue.drainTo(vis, 100));
+
+        assertEquals(List.of("customers 2", "checkin", "luggage 125.0 280.0 true", "security false LUGGAGE_DROP",
+                "passport true SECURITY_PRIORITY", "gate PASSPORT_CONTROL"), vis.calls);
+        assertEquals(0, queue.getBacklog());
+        assertEquals(0, queue.getDropped());
+    }
+
+    @Test
+    void dropsWhenFullAndKeepsOnlyTheNewestWithinBudget() {
+        UiEventQueue queue = new UiEventQueue(6);
+        assertEquals(8, queue.getCapacity());
+        for (int i = 0; i < 10; i++) {
+            queue.offerLuggageDrop(i, 0, false);
+        }
+        assertEquals(8, queue.getBacklog());
+        assertEquals(2, queue.getDropped());
+
+        RecordingVisualisation vis = new RecordingVisualisation();
+        assertEquals(3, queue.drainTo(vis, 3));
+        assertEquals(List.of("luggage 5.0 0.0 false", "luggage 6.0 0.0 false", "luggage 7.0 0.0 false"), vis.calls);
+        assertEquals(7, queue.getDropped());
+
+        // slots are free again
+        queue.offerCheckIn();
+        assertEquals(1, queue.getBacklog());
+    }
+}
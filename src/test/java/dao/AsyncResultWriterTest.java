@@ -0,0 +1,117 @@
+package dao;
+
+import org.junit.jupiter.api.Test;
+import simu.model.entity.Run;
+import simu.model.entity.RunStatistics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link AsyncResultWriter}, with an in-memory sink instead of the database.
+ */
+class AsyncResultWriterTest {
+
+    private static RunStatistics stats() {
+        return new RunStatistics(new Run(1, 1, 1, 1, 1, 1, 1, 1),
+                0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    void flushWaitsForEverySubmittedRunAndBatchesThem() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> batchSizes = new ArrayList<>();
+        List<RunStatistics> written = new ArrayList<>();
+        AsyncResultWriter writer = new AsyncResultWriter(100, 10, batch -> {
+            try {
+                release.await(); // a slow database: runs pile up meanwhile
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            synchronized (written) {
+                batchSizes.add(batch.size());
+                written.addAll(batch);
+            }
+        });
+        List<RunStatistics> submitted = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            RunStatistics s = stats();
+            submitted.add(s);
+            writer.submit(s); // returns without waiting for the sink
+        }
+        release.countDown();
+        writer.flush();
+
+        synchronized (written) {
+            assertEquals(submitted, written);
+            assertTrue(batchSizes.size() < 25, "runs are written in batches");
+            assertTrue(batchSizes.stream().allMatch(n -> n <= 10));
+        }
+        writer.close();
+    }
+
+    @Test
+    void closeWritesWhatIsQueuedAndRejectsFurtherRuns() {
+        List<RunStatistics> written = new ArrayList<>();
+        AsyncResultWriter writer = new AsyncResultWriter(100, 10, written::addAll);
+        for (int i = 0; i < 5; i++) writer.submit(stats());
+        writer.close();
+
+        assertEquals(5, written.size());
+        assertThrows(IllegalStateException.class, () -> writer.submit(stats()));
+    }
+
+    @Test
+    void failedBatchIsCountedAndDoesNotBlockFlush() throws InterruptedException {
+        AsyncResultWriter writer = new AsyncResultWriter(100, 10, batch -> {
+            throw new IllegalStateException("database down");
+        });
+        writer.submit(stats());
+        writer.submit(stats());
+        writer.flush();
+
+        assertEquals(2, writer.getFailed());
+        writer.close();
+    }
+
+    @Test
+    void closeWritesEveryRunAcceptedWhileClosing() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            List<RunStatistics> written = Collections.synchronizedList(new ArrayList<>());
+            AsyncResultWriter writer = new AsyncResultWriter(4, 2, written::addAll);
+            List<RunStatistics> accepted = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> engines = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Thread engine = new Thread(() -> {
+                    try {
+                        start.await();
+                        while (true) {
+                            RunStatistics s = stats();
+                            writer.submit(s);
+                            accepted.add(s);
+                        }
+                    } catch (IllegalStateException | InterruptedException closed) {
+                        // rejected: the writer is closed
+                    }
+                });
+                engine.start();
+                engines.add(engine);
+            }
+            start.countDown();
+            Thread.sleep(2);
+            writer.close();
+            for (Thread engine : engines) {
+                engine.join(5000);
+                assertFalse(engine.isAlive());
+            }
+
+            assertEquals(accepted.size(), written.size());
+            assertTrue(written.containsAll(accepted));
+        }
+    }
+}
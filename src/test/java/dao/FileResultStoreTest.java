@@ -0,0 +1,155 @@
+package dao;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simu.model.entity.Run;
+import simu.model.entity.RunStatistics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link FileResultStore}.
+ * <p>Stores runs in a temporary file, reads them back through a second store on the same file
+ * and checks the history queries and the repair of a line cut off by a crash.</p>
+ */
+class FileResultStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private static RunStatistics stats(int checkIn, double average) {
+        return new RunStatistics(new Run(2, 1, 3, checkIn, 1, 4, 1, 5),
+                7, average, 0, 0.25, 0, 0, 1, 1.0 / 3, 0, 0, 0, 0, 0, 0, 9, 2.5);
+    }
+
+    @Test
+    void storesBatchesAndReadsThemBack() {
+        Path file = dir.resolve("results.csv");
+        List<RunStatistics> batch = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            batch.add(stats(i + 1, i * 0.1));
+        }
+        try (FileResultStore store = new FileResultStore(file)) {
+            store.persistAll(batch);
+            assertEquals(1, batch.get(0).getRun().getId());
+            assertEquals(5, batch.get(4).getId());
+        }
+
+        try (FileResultStore store = new FileResultStore(file)) {
+            assertEquals(5, store.count());
+            RunStatistics third = store.findByRunId(3);
+            assertEquals(3, third.getRun().getCheckInQueuesCount());
+            assertEquals(2, third.getRun().getLuggageDropCount());
+            assertEquals(0.2, third.getCheckInQueueAverageLength());
+            assertEquals(1.0 / 3, third.getSecurityQueueAverageLength());
+            assertEquals(9, third.getGateQueueMaxLength());
+
+            List<RunStatistics> page = store.findPageAfter(2, 0, 2);
+            assertEquals(List.of(3, 4), List.of(page.get(0).getRun().getId(), page.get(1).getRun().getId()));
+            page = store.findPageAfter(0, 3, 2);
+            assertEquals(List.of(4, 5), List.of(page.get(0).getRun().getId(), page.get(1).getRun().getId()));
+            assertTrue(store.findPageAfter(5, 0, 2).isEmpty());
+            assertTrue(store.findPageAfter(0, 5, 2).isEmpty());
+            assertEquals(5, store.findLatest().getRun().getId());
+            assertEquals(5, store.findAllRuns().size());
+            assertNull(store.findByRunId(6));
+
+            store.persistAll(List.of(stats(9, 0)));
+            assertEquals(6, store.findLatest().getRun().getId());
+        }
+    }
+
+    @Test
+    void storesRunsAndStatisticsSeparately() {
+        try (FileResultStore store = new FileResultStore(dir.resolve("results.csv"))) {
+            Run run = new Run(1, 1, 1, 1, 1, 1, 1, 1);
+            store.persist(run);
+            assertEquals(1, run.getId());
+            assertEquals(0, store.count());
+
+            RunStatistics s = new RunStatistics(run, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1);
+            store.persist(s);
+            assertEquals(1, store.count());
+            assertEquals(1, store.findStatistics(s.getId()).getRun().getId());
+            assertThrows(IllegalArgumentException.class, () -> store.persist(s));
+            assertThrows(IllegalStateException.class, () -> store.delete(run)); // still has statistics
+        }
+    }
+
+    @Test
+    void returnedEntitiesAreCopies() {
+        try (FileResultStore store = new FileResultStore(dir.resolve("results.csv"))) {
+            store.persistAll(List.of(stats(1, 0)));
+            store.findLatest().getRun().setId(42);
+            assertEquals(1, store.findLatest().getRun().getId());
+        }
+    }
+
+    @Test
+    void cutsOffALineLeftIncompleteByACrash() throws IOException {
+        Path file = dir.resolve("results.csv");
+        try (FileResultStore store = new FileResultStore(file)) {
+            store.persistAll(List.of(stats(1, 0), stats(2, 0)));
+        }
+        Files.writeString(file, "R,3,1,2", StandardCharsets.US_ASCII, StandardOpenOption.APPEND);
+
+        try (FileResultStore store = new FileResultStore(file)) {
+            assertEquals(2, store.count());
+            store.persistAll(List.of(stats(3, 0)));
+        }
+        try (FileResultStore store = new FileResultStore(file)) {
+            assertEquals(3, store.count());
+            assertEquals(3, store.findLatest().getRun().getCheckInQueuesCount());
+        }
+    }
+
+    @Test
+    void updatesAndDeletesSurviveReopeningAndAreFoldedIntoTheFile() throws IOException {
+        Path file = dir.resolve("results.csv");
+        try (FileResultStore store = new FileResultStore(file)) {
+            store.persistAll(List.of(stats(1, 0), stats(2, 0), stats(3, 0)));
+
+            Run changed = new Run(7, 1, 3, 9, 1, 4, 1, 5);
+            changed.setId(1);
+            store.update(changed);
+            assertEquals(9, store.findByRunId(1).getRun().getCheckInQueuesCount());
+
+            RunStatistics second = store.findByRunId(2);
+            RunStatistics replacement = new RunStatistics(second.getRun(),
+                    7, 0.75, 0, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 9, 2.5);
+            replacement.setId(second.getId());
+            store.update(replacement);
+            assertEquals(0.75, store.findByRunId(2).getCheckInQueueAverageLength());
+
+            RunStatistics third = store.findByRunId(3);
+            store.delete(third);
+            store.delete(third.getRun());
+            assertEquals(2, store.count());
+            assertNull(store.findRun(3));
+        }
+        long appended = Files.readAllLines(file).size();
+
+        try (FileResultStore store = new FileResultStore(file)) {
+            assertEquals(2, store.count());
+            assertEquals(9, store.findByRunId(1).getRun().getCheckInQueuesCount());
+            assertEquals(0.75, store.findByRunId(2).getCheckInQueueAverageLength());
+            assertNull(store.findRun(3));
+            assertEquals(2, store.findLatest().getRun().getId());
+            assertTrue(Files.readAllLines(file).size() < appended, "replaced and deleted lines are dropped");
+
+            store.persistAll(List.of(stats(4, 0)));
+            assertEquals(4, store.findLatest().getRun().getId(), "the id of the deleted run is not reused");
+        }
+        try (FileResultStore store = new FileResultStore(file)) {
+            assertEquals(List.of(1, 2, 4), store.findAllRuns().stream().map(Run::getId).toList());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package datasource;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the region storage of {@link BoundedRegionFactory}.
+ * <p>Checks that a bounded region evicts beyond its maximum size, that an unbounded one does
+ * not, and that hits, misses and evictions are counted.</p>
+ */
+class BoundedRegionFactoryTest {
+
+    @Test
+    void boundedRegionEvictsBeyondItsMaximumSize() {
+        BoundedRegionFactory.CaffeineStorage storage = new BoundedRegionFactory.CaffeineStorage(100);
+        for (int i = 0; i < 1000; i++) {
+            storage.putIntoCache(i, "run" + i, null);
+        }
+        assertEquals(100, storage.size());
+        assertTrue(storage.stats().evictionCount() >= 900);
+    }
+
+    @Test
+    void unboundedRegionKeepsEverything() {
+        BoundedRegionFactory.CaffeineStorage storage = new BoundedRegionFactory.CaffeineStorage(0);
+        for (int i = 0; i < 1000; i++) {
+            storage.putIntoCache(i, (long) i, null);
+        }
+        assertEquals(1000, storage.size());
+        assertEquals(0, storage.stats().evictionCount());
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        BoundedRegionFactory.CaffeineStorage storage = new BoundedRegionFactory.CaffeineStorage(10);
+        storage.putIntoCache("a", 1, null);
+        assertEquals(1, storage.getFromCache("a", null));
+        assertEquals(1, storage.getFromCache("a", null));
+        assertNull(storage.getFromCache("b", null));
+        storage.evictData("a");
+        assertFalse(storage.contains("a"));
+
+        CacheStats stats = storage.stats();
+        assertEquals(2, stats.hitCount());
+        assertEquals(1, stats.missCount());
+    }
+}
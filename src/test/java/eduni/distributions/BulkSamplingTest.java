@@ -0,0 +1,54 @@
+package eduni.distributions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the bulk sampling API and {@link PrefetchGenerator}.
+ */
+class BulkSamplingTest {
+
+    @Test
+    void prefetchServesTheBulkSequence() {
+        double[] bulk = new double[1000];
+        new Normal(8, 4, 4851).sample(bulk, 0, bulk.length);
+
+        PrefetchGenerator prefetched = new PrefetchGenerator(new Normal(8, 4, 4851), 64);
+        double[] mixed = new double[1000];
+        for (int i = 0; i < 100; i++) mixed[i] = prefetched.sample();
+        prefetched.sample(mixed, 100, 500);
+        for (int i = 600; i < 1000; i++) mixed[i] = prefetched.sample();
+
+        assertArrayEquals(bulk, mixed, 0.0);
+    }
+
+    @Test
+    void bulkSamplesHaveTheRequestedMoments() {
+        int n = 200000;
+        double[] out = new double[n + 1];
+        // odd length and offset: the last Box-Muller pair is only half used
+        new Normal(8, 4, new SplittableSource(1)).sample(out, 1, n);
+        assertEquals(8.0, mean(out, 1, n), 0.02);
+        assertEquals(4.0, variance(out, 1, n), 0.05);
+
+        new Gamma(2.0, 5.0, new SplittableSource(2)).sample(out, 0, n);
+        assertEquals(10.0, mean(out, 0, n), 0.05);       // scale * shape
+        assertEquals(20.0, variance(out, 0, n), 0.4);    // scale^2 * shape
+
+        new Negexp(15, new SplittableSource(3)).sample(out, 0, n);
+        assertEquals(15.0, mean(out, 0, n), 0.15);
+    }
+
+    private static double mean(double[] v, int off, int len) {
+        double sum = 0;
+        for (int i = off; i < off + len; i++) sum += v[i];
+        return sum / len;
+    }
+
+    private static double variance(double[] v, int off, int len) {
+        double m = mean(v, off, len), sum = 0;
+        for (int i = off; i < off + len; i++) sum += (v[i] - m) * (v[i] - m);
+        return sum / (len - 1);
+    }
+}
@@ -0,0 +1,42 @@
+package eduni.distributions;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two-sample Kolmogorov-Smirnov test shared by the distribution tests.
+ */
+final class KolmogorovSmirnov {
+    /** size of each sample */
+    static final int N = 20000;
+    /** critical value of the two-sample statistic for alpha = 0.001 */
+    static final double CRITICAL = 1.949 * Math.sqrt(2.0 / N);
+
+    private KolmogorovSmirnov() {
+    }
+
+    /**
+     * Asserts that two samples of {@link #N} values come from the same distribution. Sorts both.
+     * @param what names the distribution in the failure message
+     */
+    static void assertSameDistribution(double[] a, double[] b, String what) {
+        Arrays.sort(a);
+        Arrays.sort(b);
+        double d = statistic(a, b);
+        assertTrue(d < CRITICAL, what + ": D = " + d + " >= " + CRITICAL);
+    }
+
+    /** sup |F_a - F_b| of two sorted samples */
+    static double statistic(double[] a, double[] b) {
+        int i = 0, j = 0;
+        double d = 0;
+        while (i < a.length && j < b.length) {
+            double x = Math.min(a[i], b[j]);
+            while (i < a.length && a[i] == x) i++;
+            while (j < b.length && b[j] == x) j++;
+            d = Math.max(d, Math.abs((double) i / a.length - (double) j / b.length));
+        }
+        return d;
+    }
+}
@@ -0,0 +1,40 @@
+package eduni.distributions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SeedGenerator} and its {@link RandomGenerator}: the O(1) jump gives exactly
+ * the seeds of the original loop that drew every number of the spacing, and the division-free
+ * MLCG step gives the original sequence.
+ */
+class SeedGeneratorTest {
+
+    @Test
+    void jumpGivesTheSameSeedsAsDrawingTheWholeSpacing() {
+        for (int spacing : new int[]{1, 7, 100000, 1000000}) {
+            SeedGenerator seeds = new SeedGenerator(4851, spacing);
+            RandomGenerator reference = new RandomGenerator(4851);
+            assertEquals(4851, seeds.sample());
+            for (int i = 0; i < 5; i++) {
+                for (int j = 0; j < spacing; j++) reference.nextLong();
+                assertEquals(reference.getSeed(), seeds.sample());
+            }
+        }
+    }
+
+    @Test
+    void mlcgSequenceIsUnchanged() {
+        RandomGenerator generator = new RandomGenerator(4851);
+        RandomGenerator bulk = new RandomGenerator(4851);
+        double[] block = new double[1000];
+        long seed = 4851;
+        for (int i = 0; i < 1000000; i++) {
+            seed = (742938285L * seed) % 2147483647L;
+            if (i % 1000 == 0) bulk.sample(block, 0, block.length);
+            assertEquals(seed, generator.nextLong());
+            assertEquals(seed / 2147483647.0, block[i % 1000], 0.0);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package eduni.distributions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the inverse-CDF {@link TruncatedNormal} and {@link NormalCdf}.
+ */
+class TruncatedNormalTest {
+
+    @Test
+    void cdfAndInverseMatchReferenceValues() {
+        assertEquals(0.5, NormalCdf.cdf(0), 1e-15);
+        assertEquals(0.158655253931457, NormalCdf.cdf(-1), 1e-14);
+        // relative precision in the lower tail
+        assertEquals(1.34989803163009e-3, NormalCdf.cdf(-3), 1.35e-11);
+        assertEquals(2.86651571879194e-7, NormalCdf.cdf(-5), 2.87e-15);
+        assertEquals(7.61985302416047e-24, NormalCdf.cdf(-10), 7.62e-32);
+        for (double x : new double[]{-30, -8, -3, -1, -0.1, 0, 0.5, 2, 5}) {
+            assertEquals(x, NormalCdf.inverse(NormalCdf.cdf(x)), 1e-8 * Math.max(1, Math.abs(x)));
+        }
+    }
+
+    @Test
+    void matchesRejectionSampling() {
+        assertMatchesRejection(12, 6, 0, 30);     // security lane, truncated near zero
+        assertMatchesRejection(0, 1, -0.05, 0.05); // narrow interval around the mean
+        assertMatchesRejection(0, 1, 2.5, 4);      // upper tail, mirrored
+        assertMatchesRejection(0, 1, -3, -2);      // lower tail
+    }
+
+    @Test
+    void farTailStaysInBoundsWithTheRightShape() {
+        // P(Z > 40) underflows: the tail is close to 40 + Exp(40)
+        TruncatedNormal far = new TruncatedNormal(0, 1, 40, Double.POSITIVE_INFINITY, 7);
+        int n = 20000;
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            double v = far.sample();
+            assertTrue(v >= 40);
+            sum += v - 40;
+        }
+        assertEquals(1.0 / 40, sum / n, 0.001);
+    }
+
+    @Test
+    void sameSeedReplaysAndBulkMatchesSingle() {
+        TruncatedNormal a = new TruncatedNormal(12, 6, 4851);
+        TruncatedNormal b = new TruncatedNormal(12, 6, 4851);
+        double[] single = new double[100];
+        for (int i = 0; i < single.length; i++) single[i] = a.sample();
+        double[] bulk = new double[100];
+        b.sample(bulk, 0, bulk.length);
+        assertArrayEquals(single, bulk, 0.0);
+        for (double v : single) assertTrue(v >= 12 - 18 && v <= 12 + 18);
+    }
+
+    private static void assertMatchesRejection(double mean, double sd, double min, double max) {
+        TruncatedNormal inverse = new TruncatedNormal(mean, sd, min, max, new SplittableSource(11));
+        Random rng = new Random(12);
+        double[] a = new double[KolmogorovSmirnov.N], b = new double[KolmogorovSmirnov.N];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = inverse.sample();
+            assertTrue(a[i] >= min && a[i] <= max);
+            double v;
+            do {
+                v = mean + sd * rng.nextGaussian();
+            } while (v < min || v > max);
+            b[i] = v;
+        }
+        KolmogorovSmirnov.assertSameDistribution(a, b, "[" + min + ", " + max + "]");
+    }
+}
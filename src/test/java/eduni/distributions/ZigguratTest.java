@@ -0,0 +1,75 @@
+package eduni.distributions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two-sample Kolmogorov-Smirnov tests of the {@link SamplingMethod#ZIGGURAT} samplers against
+ * the {@link SamplingMethod#CLASSIC} implementations of the same distributions.
+ */
+class ZigguratTest {
+
+    @Test
+    void normalMatchesBoxMuller() {
+        assertSameDistribution(new Normal(8, 4, 11), new Normal(8, 4, 12));
+    }
+
+    @Test
+    void lognormalMatchesBoxMuller() {
+        assertSameDistribution(new LogNormal(2.3, 0.5, 21), new LogNormal(2.3, 0.5, 22));
+    }
+
+    @Test
+    void negexpMatchesLog() {
+        assertSameDistribution(new Negexp(15, 31), new Negexp(15, 32));
+    }
+
+    @Test
+    void gammaMatchesForIntegerFractionalAndSmallShapes() {
+        assertSameDistribution(new Gamma(2, 5, 41), new Gamma(2, 5, 42));
+        assertSameDistribution(new Gamma(1.5, 2.7, 43), new Gamma(1.5, 2.7, 44));
+        assertSameDistribution(new Gamma(3, 0.4, 45), new Gamma(3, 0.4, 46));
+    }
+
+    @Test
+    void erlangAndChiSquareMatchTheirSums() {
+        assertSameDistribution(new Erlang(4, 3, 51), new Erlang(4, 3, 52));
+        assertSameDistribution(new ChiSquare(7, 53), new ChiSquare(7, 54));
+    }
+
+    @Test
+    void bulkZigguratUsesTheSameAlgorithm() {
+        Normal single = new Normal(8, 4, 61);
+        Normal bulk = new Normal(8, 4, 61);
+        single.setSamplingMethod(SamplingMethod.ZIGGURAT);
+        bulk.setSamplingMethod(SamplingMethod.ZIGGURAT);
+        double[] expected = new double[100];
+        for (int i = 0; i < expected.length; i++) expected[i] = single.sample();
+        double[] actual = new double[100];
+        bulk.sample(actual, 0, actual.length);
+        assertArrayEquals(expected, actual, 0.0);
+    }
+
+    @Test
+    void zigguratTailIsReached() {
+        // P(|Z| > 3.44) is about 6e-4: the tail path must be taken and stay correct
+        Normal normal = new Normal(0, 1, new SplittableSource(71));
+        normal.setSamplingMethod(SamplingMethod.ZIGGURAT);
+        int n = 1000000, tail = 0;
+        for (int i = 0; i < n; i++) if (Math.abs(normal.sample()) > 3.442619855899) tail++;
+        assertEquals(5.76e-4, (double) tail / n, 1.5e-4);
+    }
+
+    private static <G extends Generator & ContinuousGenerator> void assertSameDistribution(G classic, G ziggurat) {
+        ziggurat.setSamplingMethod(SamplingMethod.ZIGGURAT);
+        KolmogorovSmirnov.assertSameDistribution(draw(classic::sample), draw(ziggurat::sample),
+                classic.getClass().getSimpleName());
+    }
+
+    private static double[] draw(java.util.function.DoubleSupplier sampler) {
+        double[] x = new double[KolmogorovSmirnov.N];
+        for (int i = 0; i < x.length; i++) x[i] = sampler.getAsDouble();
+        return x;
+    }
+}
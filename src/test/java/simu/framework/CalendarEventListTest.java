@@ -0,0 +1,76 @@
+package simu.framework;
+
+import org.junit.jupiter.api.Test;
+import simu.model.EventType;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CalendarEventList}.
+ * <p>The calendar queue is checked against the default heap based {@link EventList} using a
+ * hold model (remove one, schedule one) like the engine does, plus tie handling and growth.</p>
+ */
+class CalendarEventListTest {
+
+    @Test
+    void removesEventsInTimeOrderLikeTheHeap() {
+        Random random = new Random(42);
+        EventList heap = new EventList();
+        CalendarEventList calendar = new CalendarEventList(EventType.values());
+
+        for (int i = 0; i < 500; i++) {
+            double time = random.nextDouble() * 100;
+            heap.add(EventType.ARR1, time);
+            calendar.add(EventType.ARR1, time);
+        }
+        for (int i = 0; i < 20000; i++) {
+            assertEquals(heap.getNextTime(), calendar.getNextTime(), 0.0);
+            double now = heap.remove().getTime();
+            assertEquals(now, calendar.remove().getTime(), 0.0);
+
+            // exponential and occasional far-future increments
+            double increment = random.nextInt(50) == 0 ? 1000 * random.nextDouble() : -Math.log(random.nextDouble());
+            heap.add(EventType.GATE, now + increment);
+            calendar.add(EventType.GATE, now + increment);
+        }
+        assertEquals(500, calendar.size());
+    }
+
+    @Test
+    void equalTimesAreReturnedInInsertionOrder() {
+        CalendarEventList calendar = new CalendarEventList(EventType.values());
+        EventType[] order = {EventType.CHECK_IN, EventType.SECURITY, EventType.GATE, EventType.LUGGAGE_DROP};
+        for (int i = 0; i < 100; i++) {
+            calendar.add(EventType.ARR1, 0.5 + i);
+        }
+        for (EventType type : order) {
+            calendar.add(type, 5.0);
+        }
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0.5 + i, calendar.remove().getTime(), 0.0);
+        }
+        for (EventType type : order) {
+            Event e = calendar.remove();
+            assertEquals(5.0, e.getTime(), 0.0);
+            assertEquals(type, e.getType());
+        }
+    }
+
+    @Test
+    void drainsToEmptyAndRejectsFurtherRemoves() {
+        CalendarEventList calendar = new CalendarEventList(EventType.values(), 4);
+        for (int i = 1000; i > 0; i--) {
+            calendar.add(new Event(EventType.SECURITY, i * 0.5));
+        }
+        double previous = Double.NEGATIVE_INFINITY;
+        while (!calendar.isEmpty()) {
+            double time = calendar.remove().getTime();
+            assertTrue(time >= previous, "Events must come out in non-decreasing time order");
+            previous = time;
+        }
+        assertThrows(NoSuchElementException.class, calendar::remove);
+    }
+}
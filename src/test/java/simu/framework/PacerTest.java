@@ -0,0 +1,78 @@
+package simu.framework;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link Pacer}.
+ * <p>Checks that waits follow the simulated time against one anchor instead of adding up per
+ * call, that a small lag is caught up without waiting, that a large lag is skipped and that a new
+ * scale wakes a waiting thread. The bounds are generous so a busy machine does not fail them.</p>
+ */
+class PacerTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void unlimitedSpeedDoesNotWait() {
+        Pacer pacer = new Pacer();
+        long start = System.nanoTime();
+        for (int t = 1; t <= 100_000; t++) {
+            pacer.awaitSimTime(t);
+        }
+        assertTrue(System.nanoTime() - start < 1000 * MS);
+    }
+
+    @Test
+    void waitsForTheSimulatedTimeAtTheScale() {
+        Pacer pacer = new Pacer();
+        pacer.setScale(2);
+        long start = System.nanoTime();
+        for (int t = 1; t <= 50; t++) {
+            pacer.awaitSimTime(t * 0.5);
+        }
+        long elapsed = System.nanoTime() - start;
+        assertTrue(elapsed >= 50 * MS, "elapsed " + elapsed / MS + " ms");
+        assertEquals(0, pacer.getSkips());
+    }
+
+    @Test
+    void catchesUpASmallLagAndSkipsALargeOne() throws InterruptedException {
+        Pacer pacer = new Pacer(200 * MS);
+        pacer.setScale(1);
+        pacer.awaitSimTime(0);
+
+        Thread.sleep(50);           // 50 ms behind: caught up without waiting
+        long start = System.nanoTime();
+        pacer.awaitSimTime(10);
+        assertTrue(System.nanoTime() - start < 30 * MS);
+        assertEquals(0, pacer.getSkips());
+
+        Thread.sleep(500);          // far behind: the schedule moves to now
+        pacer.awaitSimTime(20);
+        assertEquals(1, pacer.getSkips());
+        start = System.nanoTime();
+        pacer.awaitSimTime(60);
+        assertTrue(System.nanoTime() - start >= 35 * MS);
+    }
+
+    @Test
+    void newScaleWakesTheWaitingThread() throws InterruptedException {
+        Pacer pacer = new Pacer();
+        pacer.setScale(1000);
+        pacer.awaitSimTime(0);
+        Thread engine = new Thread(() -> pacer.awaitSimTime(60));  // a minute at this scale
+        engine.start();
+        Thread.sleep(50);
+        pacer.setScale(0);
+        engine.join(5000);
+        assertFalse(engine.isAlive());
+        assertEquals(0, pacer.getScale());
+    }
+
+    @Test
+    void rejectsNegativeScales() {
+        assertThrows(IllegalArgumentException.class, () -> new Pacer().setScale(-1));
+    }
+}
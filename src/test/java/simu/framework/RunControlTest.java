@@ -0,0 +1,138 @@
+package simu.framework;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RunControl}.
+ * <p>A worker thread stands in for the engine and counts the "events" it is allowed to run; the
+ * test pauses it, steps it one event at a time and resumes it. An engine run on the calling thread
+ * must be paused and resumed the same way.</p>
+ */
+class RunControlTest {
+
+    /** One event per unit of simulated time. */
+    private static class TickEngine extends Engine {
+        private final IEventType tick = new IEventType() {};
+
+        TickEngine() {
+            super(null);
+        }
+
+        @Override
+        protected void initialization() {
+            eventList.add(tick, 0);
+        }
+
+        @Override
+        protected void runEvent(Event t) {
+            eventList.add(tick, t.getTime() + 1);
+        }
+
+        @Override
+        protected void tryCEvents() {
+        }
+
+        @Override
+        protected void results() {
+        }
+    }
+
+    private static void awaitEvents(AtomicLong events, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (events.get() < count) {
+            assertTrue(System.nanoTime() < deadline, "engine did not step");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void awaitParked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING) {
+            assertTrue(System.nanoTime() < deadline, "engine did not park");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void pausesStepsAndResumes() throws InterruptedException {
+        AtomicLong events = new AtomicLong();
+        RunControl control = new RunControl();
+        Thread engine = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                control.checkpoint();
+                events.incrementAndGet();
+            }
+        });
+
+        control.pause();
+        engine.start();
+        awaitParked(engine);
+        assertEquals(0, events.get());
+        assertTrue(control.isPaused());
+
+        // the engine may still look parked right after a step, so wait for the event itself
+        control.step();
+        awaitEvents(events, 1);
+        awaitParked(engine);
+        control.step();
+        control.step();
+        awaitEvents(events, 3);
+        awaitParked(engine);
+        Thread.sleep(20);
+        assertEquals(3, events.get());
+
+        control.resume();
+        assertFalse(control.isPaused());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (events.get() < 1000) {
+            assertTrue(System.nanoTime() < deadline, "engine did not resume");
+            Thread.yield();
+        }
+
+        engine.interrupt();
+        engine.join(5000);
+        assertFalse(engine.isAlive());
+    }
+
+    @Test
+    void interruptEndsAPause() throws InterruptedException {
+        RunControl control = new RunControl();
+        Thread engine = new Thread(control::checkpoint);
+        control.pause();
+        engine.start();
+        awaitParked(engine);
+        engine.interrupt();
+        engine.join(5000);
+        assertFalse(engine.isAlive());
+    }
+
+    @Test
+    void pausesAndResumesARunOnTheCallingThread() throws InterruptedException {
+        TickEngine engine = new TickEngine();
+        engine.setSimulationTime(1000);
+        engine.pause();
+        Thread caller = Thread.currentThread();
+        AtomicLong eventsWhilePaused = new AtomicLong(-1);
+        Thread controller = new Thread(() -> {
+            try {
+                awaitParked(caller);
+                eventsWhilePaused.set(engine.getEventCount());
+                engine.unpause();
+            } catch (InterruptedException | AssertionError e) {
+                engine.cancel();
+            }
+        });
+        controller.start();
+
+        engine.run();      // not started as a thread
+        controller.join(5000);
+        assertEquals(0, eventsWhilePaused.get());
+        assertEquals(RunOutcome.COMPLETED, engine.getOutcome());
+        assertEquals(1001, engine.getEventCount());     // ticks 0 to 1000
+    }
+}
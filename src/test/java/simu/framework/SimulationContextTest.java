@@ -0,0 +1,51 @@
+package simu.framework;
+
+import eduni.distributions.ContinuousGenerator;
+import eduni.distributions.SplittableSource;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SimulationContext}: contexts share no state with each other.
+ */
+class SimulationContextTest {
+
+    @Test
+    void contextsHaveIndependentClocksAndIds() {
+        SimulationContext a = new SimulationContext(1);
+        SimulationContext b = new SimulationContext(1);
+        a.getClock().setTime(50.0);
+        a.nextId();
+        a.nextId();
+
+        assertEquals(0.0, b.getTime(), 0.0);
+        assertEquals(1, b.nextId());
+        assertEquals(3, a.nextId());
+    }
+
+    @Test
+    void sameRootSeedGivesSameSeedStream() {
+        SimulationContext a = new SimulationContext(4851);
+        SimulationContext b = new SimulationContext(4851);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(a.nextSeed(), b.nextSeed());
+        }
+        assertNotEquals(a.nextSeed(), new SimulationContext(4852).nextSeed());
+    }
+
+    @Test
+    void splittableContextReplaysTheSameStreams() {
+        SimulationContext a = new SimulationContext(new SplittableSource(4851));
+        SimulationContext b = new SimulationContext(new SplittableSource(4851));
+        assertTrue(a.isSplittable());
+        ContinuousGenerator sa = a.newSource(), sb = b.newSource();
+        ContinuousGenerator other = a.newSource();
+        for (int i = 0; i < 100; i++) {
+            double u = sa.sample();
+            assertEquals(u, sb.sample(), 0.0);
+            assertTrue(u > 0 && u < 1);
+        }
+        assertNotEquals(new SplittableSource(4851).split().sample(), other.sample());
+    }
+}
@@ -0,0 +1,122 @@
+package simu.model;
+
+import controller.HeadlessController;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import simu.framework.CancellationToken;
+import simu.framework.RunOutcome;
+import simu.framework.Trace;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for cancelling a {@link MyEngine}.
+ * <p>A cancelled engine must end promptly, also while paced or paused and also when it runs on
+ * the calling thread, and must not hand results to the controller; a run that is not cancelled
+ * completes as before.</p>
+ */
+class MyEngineTest {
+
+    private static final int[] LINE_COUNTS = {1, 1, 1, 1, 1, 1, 1, 1};
+
+    @BeforeAll
+    static void initTrace() {
+        Trace.setTraceLevel(Trace.Level.ERR);
+    }
+
+    private static MyEngine engine(HeadlessController controller, double simulationTime) {
+        MyEngine engine = new MyEngine(controller, LINE_COUNTS);
+        engine.setSimulationTime(simulationTime);
+        engine.setPersistResults(false);
+        return engine;
+    }
+
+    private static void awaitEvents(MyEngine engine, long events) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (engine.getEventCount() < events) {
+            assertTrue(System.nanoTime() < deadline, "engine did not start");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void completedRunReportsResults() {
+        HeadlessController controller = new HeadlessController();
+        MyEngine engine = engine(controller, 500);
+        engine.run();
+        assertEquals(RunOutcome.COMPLETED, engine.getOutcome());
+        assertNotNull(controller.getRunStatistics());
+    }
+
+    @Test
+    void cancelStopsAPacedRunWithoutResults() throws InterruptedException {
+        HeadlessController controller = new HeadlessController();
+        MyEngine engine = engine(controller, 1_000_000);
+        engine.setTimeScale(1);     // would take over a quarter of an hour
+        engine.start();
+        awaitEvents(engine, 1);
+
+        engine.cancel();
+        engine.join(5000);
+        assertFalse(engine.isAlive());
+        assertEquals(RunOutcome.ABORTED, engine.getOutcome());
+        assertNull(controller.getRunStatistics());
+    }
+
+    @Test
+    void cancelStopsAPausedRun() throws InterruptedException {
+        HeadlessController controller = new HeadlessController();
+        MyEngine engine = engine(controller, 1_000_000);
+        engine.setTimeScale(1);
+        engine.pause();
+        engine.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (engine.getState() != Thread.State.WAITING) {
+            assertTrue(System.nanoTime() < deadline, "engine did not park");
+            Thread.sleep(1);
+        }
+        assertEquals(0, engine.getEventCount());
+
+        engine.cancel();
+        engine.join(5000);
+        assertFalse(engine.isAlive());
+        assertEquals(RunOutcome.ABORTED, engine.getOutcome());
+    }
+
+    @Test
+    void cancelStopsAPacedRunOnTheCallingThread() {
+        HeadlessController controller = new HeadlessController();
+        MyEngine engine = engine(controller, 1_000_000);
+        engine.setTimeScale(1);
+        Thread canceller = new Thread(() -> {
+            try {
+                awaitEvents(engine, 1);
+            } catch (InterruptedException | AssertionError e) {
+                // cancel anyway so the run below ends
+            }
+            engine.cancel();
+        });
+        canceller.start();
+
+        long start = System.nanoTime();
+        engine.run();      // not started as a thread
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(RunOutcome.ABORTED, engine.getOutcome());
+        assertNull(controller.getRunStatistics());
+    }
+
+    @Test
+    void sharedTokenCancelsASynchronousRun() {
+        HeadlessController controller = new HeadlessController();
+        MyEngine engine = engine(controller, 1_000_000);
+        CancellationToken token = new CancellationToken();
+        engine.setCancellationToken(token);
+        token.cancel();
+        engine.run();
+        assertEquals(RunOutcome.ABORTED, engine.getOutcome());
+        assertEquals(0, engine.getEventCount());
+        assertNull(controller.getRunStatistics());
+    }
+}
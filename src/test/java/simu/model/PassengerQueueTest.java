@@ -0,0 +1,49 @@
+package simu.model;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import simu.framework.SimulationContext;
+import simu.framework.Trace;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PassengerQueue}.
+ * <p>The ring buffer is checked against {@link ArrayDeque} with interleaved adds and polls, so the
+ * buffer wraps around and grows while wrapped.</p>
+ */
+class PassengerQueueTest {
+
+    @BeforeAll
+    static void initTrace() {
+        Trace.setTraceLevel(Trace.Level.ERR);
+    }
+
+    @Test
+    void keepsFifoOrderWhileWrappingAndGrowing() {
+        PassengerGenerator passengers = new PassengerGenerator(new SimulationContext(1));
+        PassengerQueue queue = new PassengerQueue();
+        ArrayDeque<Passenger> reference = new ArrayDeque<>();
+        Random random = new Random(3);
+
+        for (int i = 0; i < 10000; i++) {
+            if (random.nextInt(10) < 6) {
+                Passenger p = passengers.next();
+                queue.add(p);
+                reference.add(p);
+            } else {
+                assertSame(reference.poll(), queue.poll());
+            }
+            assertSame(reference.peek(), queue.peek());
+            assertEquals(reference.size(), queue.size());
+        }
+        while (!reference.isEmpty()) {
+            assertSame(reference.poll(), queue.poll());
+        }
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+    }
+}
@@ -2,18 +2,23 @@ package simu.model;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.*;
+import controller.HeadlessController;
+import simu.framework.EventList;
+import simu.framework.SimulationContext;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 
 /**
- * Unit tests for {@link Passenger}.
+ * Unit tests for {@link Passenger} and its {@link PassengerGenerator}.
  * <p>Focus areas:</p>
  * <ul>
  *   <li>Fraction setter validation (range [0,1])</li>
  *   <li>Deterministic flags when fractions are 0/1</li>
  *   <li>ID sequencing from 1</li>
  *   <li>Arrival/removal time accessors</li>
+ *   <li>Reuse of released passengers</li>
+ *   <li>Attribute streams in common random numbers mode</li>
  * </ul>
  * @author Elias Rinne
  */
@@ -25,33 +30,32 @@ class PassengerTest {
         simu.framework.Trace.setTraceLevel(simu.framework.Trace.Level.INFO);
     }
 
-    /** Reset fractions to sane defaults before each test. */
+    private PassengerGenerator generator;
+
+    /** Fresh generator with default fractions before each test. */
     @BeforeEach
     void reset() {
-        Passenger.setPriorityFraction(0.2);
-        Passenger.setLuggageFraction(0.7);
-        Passenger.setEuCitizenFraction(0.9);
-        Passenger.setCheckInFraction(0.8);
+        generator = new PassengerGenerator(new SimulationContext(1));
     }
 
     @Test
     void fractions_acceptOnlyRangeZeroToOne() {
-        assertThrows(IllegalArgumentException.class, () -> Passenger.setPriorityFraction(-0.01));
-        assertThrows(IllegalArgumentException.class, () -> Passenger.setPriorityFraction(1.01));
+        assertThrows(IllegalArgumentException.class, () -> generator.setPriorityFraction(-0.01));
+        assertThrows(IllegalArgumentException.class, () -> generator.setPriorityFraction(1.01));
 
-        assertDoesNotThrow(() -> Passenger.setPriorityFraction(0.0));
-        assertDoesNotThrow(() -> Passenger.setPriorityFraction(1.0));
-        assertEquals(1.0, Passenger.getPriorityFraction(), 1e-12);
+        assertDoesNotThrow(() -> generator.setPriorityFraction(0.0));
+        assertDoesNotThrow(() -> generator.setPriorityFraction(1.0));
+        assertEquals(1.0, generator.getPriorityFraction(), 1e-12);
     }
 
     @Test
     void flags_areDeterministicWhenFractionsAreZeroOrOne() {
-        Passenger.setPriorityFraction(1.0);
-        Passenger.setLuggageFraction(0.0);
-        Passenger.setEuCitizenFraction(1.0);
-        Passenger.setCheckInFraction(0.0);
+        generator.setPriorityFraction(1.0);
+        generator.setLuggageFraction(0.0);
+        generator.setEuCitizenFraction(1.0);
+        generator.setCheckInFraction(0.0);
 
-        Passenger p = new Passenger();
+        Passenger p = generator.next();
 
         assertTrue(p.getIsPriority());
         assertFalse(p.isLuggage());
@@ -61,8 +65,8 @@ class PassengerTest {
 
     @Test
     void id_incrementsFromOne() {
-        Passenger p1 = new Passenger();
-        Passenger p2 = new Passenger();
+        Passenger p1 = generator.next();
+        Passenger p2 = generator.next();
         assertEquals(1, p1.getId());
         assertEquals(2, p2.getId());
         assertEquals(p1.getId() + 1, p2.getId());
@@ -70,20 +74,111 @@ class PassengerTest {
 
     @Test
     void arrivalAndRemovalTime_settersAndGettersWork() {
-        Passenger p = new Passenger();
+        Passenger p = generator.next();
         p.setArrivalTime(10.5);
         p.setRemovalTime(42.0);
         assertEquals(10.5, p.getArrivalTime(), 1e-12);
         assertEquals(42.0, p.getRemovalTime(), 1e-12);
     }
 
+    @Test
+    void arrivalTime_isTakenFromTheContextClock() {
+        SimulationContext context = new SimulationContext(1);
+        PassengerGenerator g = new PassengerGenerator(context);
+        context.getClock().setTime(12.5);
+        assertEquals(12.5, g.next().getArrivalTime(), 1e-12);
+    }
+
+    @Test
+    void sameSeed_givesSamePassengerStream() {
+        PassengerGenerator a = new PassengerGenerator(new SimulationContext(7));
+        PassengerGenerator b = new PassengerGenerator(new SimulationContext(7));
+        for (int i = 0; i < 100; i++) {
+            Passenger pa = a.next();
+            Passenger pb = b.next();
+            assertEquals(pa.getIsPriority(), pb.getIsPriority());
+            assertEquals(pa.isCheckIn(), pb.isCheckIn());
+            assertEquals(pa.isLuggage(), pb.isLuggage());
+            assertEquals(pa.isEuCitizen(), pb.isEuCitizen());
+        }
+    }
+
+    @Test
+    void released_isReusedAsANewArrival() {
+        Passenger first = generator.next();
+        first.setRemovalTime(10.0);
+        generator.release(first);
+
+        Passenger reused = generator.next();
+
+        assertSame(first, reused);
+        assertEquals(2, reused.getId());
+        assertEquals(0.0, reused.getRemovalTime(), 1e-12);
+        assertNotSame(reused, generator.next());
+    }
+
     @Test
     void reportResults_accumulatesServiceTimeIntoSum() {
-        Passenger p1 = new Passenger();
+        Passenger p1 = generator.next();
         p1.setArrivalTime(0.0);
         p1.setRemovalTime(10.0);
         p1.reportResults();
 
     }
 
-}
\ No newline at end of file
+
+    @Test
+    void crn_attributesDoNotDependOnOtherFractions() {
+        SimulationContext a = new SimulationContext(1);
+        SimulationContext b = new SimulationContext(1);
+        a.setCommonRandomNumbers(true);
+        b.setCommonRandomNumbers(true);
+        PassengerGenerator ga = new PassengerGenerator(a);
+        PassengerGenerator gb = new PassengerGenerator(b);
+        gb.setPriorityFraction(1.0);   // deterministic, but still consumes its own stream
+
+        for (int i = 0; i < 100; i++) {
+            Passenger pa = ga.next();
+            Passenger pb = gb.next();
+            assertTrue(pb.getIsPriority());
+            assertEquals(pa.isCheckIn(), pb.isCheckIn());
+            assertEquals(pa.isLuggage(), pb.isLuggage());
+            assertEquals(pa.isEuCitizen(), pb.isEuCitizen());
+        }
+    }
+
+    @Test
+    void crn_passengersDoNotDependOnLineCounts() {
+        SimulationContext a = new SimulationContext(3);
+        SimulationContext b = new SimulationContext(3);
+        a.setCommonRandomNumbers(true);
+        b.setCommonRandomNumbers(true);
+        MyEngine ea = new MyEngine(new HeadlessController(), new int[]{1, 1, 1, 1, 1, 1, 1, 1}, new EventList(), a);
+        MyEngine eb = new MyEngine(new HeadlessController(), new int[]{4, 2, 1, 3, 2, 5, 1, 3}, new EventList(), b);
+        StationLoad stations = ea.getStationLoad();
+
+        boolean differsBetweenPassengers = false;
+        double firstCheckIn = Double.NaN;
+        for (int i = 0; i < 200; i++) {
+            Passenger pa = ea.getPassengerGenerator().next();
+            Passenger pb = eb.getPassengerGenerator().next();
+            assertEquals(pa.getId(), pb.getId());
+            assertTrue(pa.hasServiceTimes() && pb.hasServiceTimes());
+            assertEquals(pa.getIsPriority(), pb.getIsPriority());
+            assertEquals(pa.isCheckIn(), pb.isCheckIn());
+            assertEquals(pa.isLuggage(), pb.isLuggage());
+            assertEquals(pa.isEuCitizen(), pb.isEuCitizen());
+            for (int s = 0; s < stations.size(); s++) {
+                EventType station = stations.getStation(s);
+                assertEquals(pa.getServiceTime(station), pb.getServiceTime(station), 0.0);
+            }
+            double checkIn = pa.getServiceTime(EventType.CHECK_IN);
+            if (i == 0) {
+                firstCheckIn = checkIn;
+            } else if (checkIn != firstCheckIn) {
+                differsBetweenPassengers = true;
+            }
+        }
+        assertTrue(differsBetweenPassengers, "service times are drawn, not constant");
+    }
+}
@@ -0,0 +1,68 @@
+package simu.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link QueueLengthIndex}.
+ * <p>The index is checked against the linear scans ServicePoint used before: shortest line with
+ * the lowest index, and longest line with the lowest index.</p>
+ */
+class QueueLengthIndexTest {
+
+    @Test
+    void selectsLikeALinearScan() {
+        Random random = new Random(7);
+        for (int lines : new int[]{1, 3, 64, 65, 130}) {
+            QueueLengthIndex index = new QueueLengthIndex(lines);
+            int[] lengths = new int[lines];
+            for (int step = 0; step < 20000; step++) {
+                assertEquals(scanShortest(lengths), index.shortest());
+                if (max(lengths) > 0) {
+                    assertEquals(scanLongest(lengths), index.longest());
+                }
+                // random walk with a slight drift, so lines both fill up and drain
+                if (random.nextInt(100) < 52 || max(lengths) == 0) {
+                    int line = random.nextBoolean() ? index.shortest() : random.nextInt(lines);
+                    index.increment(line);
+                    lengths[line]++;
+                } else {
+                    int line = index.longest();
+                    index.decrement(line);
+                    lengths[line]--;
+                }
+                assertEquals(max(lengths), index.maxLength());
+            }
+        }
+    }
+
+    @Test
+    void rejectsRemovalFromEmptyLine() {
+        QueueLengthIndex index = new QueueLengthIndex(2);
+        assertThrows(IllegalStateException.class, () -> index.decrement(1));
+        assertThrows(IllegalArgumentException.class, () -> new QueueLengthIndex(0));
+    }
+
+    private static int scanShortest(int[] lengths) {
+        int best = 0;
+        for (int i = 1; i < lengths.length; i++) {
+            if (lengths[i] < lengths[best]) best = i;
+        }
+        return best;
+    }
+
+    private static int scanLongest(int[] lengths) {
+        int best = 0;
+        for (int i = 1; i < lengths.length; i++) {
+            if (lengths[i] > lengths[best]) best = i;
+        }
+        return best;
+    }
+
+    private static int max(int[] lengths) {
+        return lengths[scanLongest(lengths)];
+    }
+}
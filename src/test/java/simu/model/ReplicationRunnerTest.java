@@ -0,0 +1,80 @@
+package simu.model;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import simu.framework.Trace;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ReplicationRunner}.
+ * <p>Replications must be reproducible from the root seed regardless of how many threads run them,
+ * and independent of each other (non-zero spread between replications).</p>
+ */
+class ReplicationRunnerTest {
+
+    @BeforeAll
+    static void initTrace() {
+        Trace.setTraceLevel(Trace.Level.ERR);
+    }
+
+    @Test
+    void sameRootSeedGivesSameSummaryOnAnyThreadCount() throws InterruptedException {
+        int[] lineCounts = {1, 1, 1, 1, 1, 1, 1, 1};
+        ReplicationRunner sequential = new ReplicationRunner(lineCounts, 2000, 6, 1234);
+        sequential.setParallelism(1);
+        ReplicationRunner parallel = new ReplicationRunner(lineCounts, 2000, 6, 1234);
+        parallel.setParallelism(4);
+
+        ReplicationSummary a = sequential.run();
+        ReplicationSummary b = parallel.run();
+
+        assertEquals(6, a.getReplications());
+        for (int s = 0; s < ReplicationSummary.STATION_NAMES.length; s++) {
+            assertEquals(a.getAverageLengthMean(s), b.getAverageLengthMean(s), 0.0);
+            assertEquals(a.getMaxLengthMean(s), b.getMaxLengthMean(s), 0.0);
+            assertEquals(a.getAverageLengthHalfWidth(s), b.getAverageLengthHalfWidth(s), 0.0);
+        }
+        // independent streams: the replications do not all produce the same check-in queue
+        assertTrue(a.getAverageLengthHalfWidth(0) > 0.0);
+    }
+
+    @Test
+    void tQuantileIsContinuousAtTheEndOfTheTable() {
+        assertEquals(12.706, ReplicationSummary.tQuantile(1), 1e-9);
+        assertEquals(2.042, ReplicationSummary.tQuantile(30), 1e-9);
+        assertEquals(2.040, ReplicationSummary.tQuantile(31), 2e-3);
+        assertEquals(1.984, ReplicationSummary.tQuantile(100), 2e-3);
+    }
+
+    @Test
+    void crnComparisonOfAConfigurationWithItselfIsExactlyZero() throws InterruptedException {
+        int[] lineCounts = {2, 1, 1, 1, 1, 1, 1, 1};
+        ReplicationRunner runner = new ReplicationRunner(lineCounts, 2000, 4, 1234);
+        runner.setCommonRandomNumbers(true);
+        ReplicationSummary difference = runner.compare(lineCounts);
+
+        assertTrue(difference.isDifferences());
+        for (int s = 0; s < ReplicationSummary.STATION_NAMES.length; s++) {
+            assertEquals(0.0, difference.getAverageLengthMean(s), 0.0);
+            assertEquals(0.0, difference.getAverageLengthHalfWidth(s), 0.0);
+        }
+    }
+
+    @Test
+    void crnNarrowsTheConfidenceIntervalOfADifference() throws InterruptedException {
+        int[] a = {2, 1, 1, 1, 1, 1, 1, 1};
+        int[] b = {3, 1, 1, 1, 1, 1, 1, 1};
+        ReplicationRunner crn = new ReplicationRunner(a, 2000, 10, 1234);
+        crn.setCommonRandomNumbers(true);
+        double withCrn = crn.compare(b).getAverageLengthHalfWidth(0);   // check-in, the station that differs
+
+        // independent streams: A and B on different root seeds; the half-width of the difference of
+        // two independent means is the root of the sum of the squared half-widths
+        double halfWidthA = new ReplicationRunner(a, 2000, 10, 1234).run().getAverageLengthHalfWidth(0);
+        double halfWidthB = new ReplicationRunner(b, 2000, 10, 4321).run().getAverageLengthHalfWidth(0);
+        double independent = Math.hypot(halfWidthA, halfWidthB);
+
+        assertTrue(withCrn < 0.75 * independent, withCrn + " vs " + independent);
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 import eduni.distributions.ContinuousGenerator;
+import simu.framework.SimulationContext;
 import simu.framework.Event;
 import simu.framework.EventList;
 import simu.framework.Trace;
@@ -22,6 +23,7 @@ import java.util.List;
 class ServicePointTest {
 
     private ContinuousGenerator generator;
+    private PassengerGenerator passengers;
 
     @BeforeEach
     void setUp() {
@@ -37,6 +39,8 @@ class ServicePointTest {
             public void reseed() { }
         };
 
+        passengers = new PassengerGenerator(new SimulationContext(1));
+
         // Turn on trace once for all tests
         Trace.setTraceLevel(Trace.Level.INFO);
     }
@@ -58,10 +62,10 @@ class ServicePointTest {
 
         ServicePoint sp = new ServicePoint(generator, eventList, EventType.CHECK_IN, 4);
 
-        Passenger p1 = new Passenger();
-        Passenger p2 = new Passenger();
-        Passenger p3 = new Passenger();
-        Passenger p4 = new Passenger();
+        Passenger p1 = passengers.next();
+        Passenger p2 = passengers.next();
+        Passenger p3 = passengers.next();
+        Passenger p4 = passengers.next();
 
         sp.addQueue(p1);
         sp.addQueue(p2);
@@ -92,7 +96,7 @@ class ServicePointTest {
 
         ServicePoint sp = new ServicePoint(generator, eventList, EventType.CHECK_IN, 1);
 
-        Passenger p = new Passenger();
+        Passenger p = passengers.next();
         sp.addQueue(p);
 
         assertFalse(sp.isReserved(0), "Queue 0 should not be reserved yet");
@@ -115,10 +119,10 @@ class ServicePointTest {
 
         ServicePoint sp = new ServicePoint(generator, eventList, EventType.CHECK_IN, 4);
 
-        Passenger p1 = new Passenger();
-        Passenger p2 = new Passenger();
-        Passenger p3 = new Passenger();
-        Passenger p4 = new Passenger();
+        Passenger p1 = passengers.next();
+        Passenger p2 = passengers.next();
+        Passenger p3 = passengers.next();
+        Passenger p4 = passengers.next();
 
         sp.addQueue(p1);
         sp.addQueue(p2);
@@ -149,9 +153,9 @@ class ServicePointTest {
 
         ServicePoint sp = new ServicePoint(generator, eventList, EventType.CHECK_IN, 2);
 
-        sp.addQueue(new Passenger());
-        sp.addQueue(new Passenger());
-        sp.addQueue(new Passenger());
+        sp.addQueue(passengers.next());
+        sp.addQueue(passengers.next());
+        sp.addQueue(passengers.next());
 
         // Max length should be 2 or more
         assertTrue(sp.getMaxLength() >= 2, "Max queue length should be at least 2");
@@ -159,4 +163,49 @@ class ServicePointTest {
         // Average length should be more than 0
         assertTrue(sp.getAverageLength() > 0, "Average length should be positive");
     }
+
+    /**
+     * Verifies that the average queue length is weighted by simulation time.
+     */
+    @Test
+    void averageLengthIsTimeWeightedTest() {
+        EventList eventList = new EventList() {
+            @Override
+            public void add(Event e) { }
+        };
+        SimulationContext context = new SimulationContext(1);
+        ServicePoint sp = new ServicePoint(generator, eventList, EventType.CHECK_IN, 2, context);
+
+        // two passengers on line 0 and 1 for 10 time units, then one for another 30
+        sp.addQueue(passengers.next());
+        sp.addQueue(passengers.next());
+        context.getClock().setTime(10);
+        sp.removeQueue();
+        context.getClock().setTime(40);
+
+        // area = 2 * 10 + 1 * 30 = 50 over 40 time units and 2 lines
+        assertEquals(50.0 / 40 / 2, sp.getAverageLength(), 1e-12);
+        assertEquals(1, sp.getMaxLength());
+    }
+
+    /**
+     * Verifies that queue lengths and departures are published to a station load.
+     */
+    @Test
+    void publishesQueuedAndDepartedPassengers() {
+        ServicePoint sp = new ServicePoint(generator, new EventList(), EventType.SECURITY, 2);
+        StationLoad load = new StationLoad(new EventType[]{EventType.CHECK_IN, EventType.SECURITY});
+        sp.publishTo(load, 1);
+
+        sp.addQueue(passengers.next());
+        sp.addQueue(passengers.next());
+        sp.addQueue(passengers.next());
+        assertEquals(3, load.getQueued(1));
+        assertEquals(0, load.getQueued(0));
+
+        sp.removeQueue();
+        assertEquals(2, load.getQueued(1));
+        assertEquals(1, load.getDeparted(1));
+        assertEquals(EventType.SECURITY, load.getStation(1));
+    }
 }